@@ -0,0 +1,247 @@
+package bench;
+import game.BattleEngine;
+import game.ItemType;
+import game.Monster;
+import game.TurnScheduler;
+import gui.HeadlessBattleView;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GameStateBenchmark - Timing for the game-state hot paths
+ *
+ * A small self-contained harness (the project has no build file, so no JMH):
+ * each benchmark is warmed up, then timed for several iterations and the
+ * median ns/op is reported. Results can be saved and later compared against,
+ * which makes this usable as a regression gate.
+ *
+ * Usage:
+ *   java -cp bin bench.GameStateBenchmark [--save FILE] [--baseline FILE] [--tolerance 0.25] [--quick]
+ *
+ * Exits with status 1 if any benchmark is slower than the baseline by more
+ * than the tolerance.
+ */
+public class GameStateBenchmark {
+
+    // Monster counts used for the size-dependent benchmarks
+    private static final int[] MONSTER_COUNTS = {2, 10, 100, 1_000, 10_000, 100_000};
+
+    // Results land here so the JIT can't throw the work away
+    private static volatile long blackhole;
+
+    /**
+     * One benchmark body - runs the operation reps times
+     */
+    interface Op {
+        long run(int reps);
+    }
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final int iterations;
+    private final Map<String, Double> results = new LinkedHashMap<>();
+
+    public GameStateBenchmark(long warmupNanos, long measureNanos, int iterations) {
+        this.warmupNanos = warmupNanos;
+        this.measureNanos = measureNanos;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path save = null;
+        Path baseline = null;
+        double tolerance = 0.25;
+        boolean quick = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--save": save = Path.of(args[++i]); break;
+                case "--baseline": baseline = Path.of(args[++i]); break;
+                case "--tolerance": tolerance = Double.parseDouble(args[++i]); break;
+                case "--quick": quick = true; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        GameStateBenchmark bench = quick
+            ? new GameStateBenchmark(50_000_000L, 50_000_000L, 3)
+            : new GameStateBenchmark(500_000_000L, 200_000_000L, 5);
+        bench.runAll();
+
+        if (save != null) {
+            bench.save(save);
+        }
+        if (baseline != null && !bench.compare(baseline, tolerance)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run every benchmark and print a table
+     */
+    public void runAll() {
+        System.out.printf("%-32s %10s %14s%n", "benchmark", "monsters", "ns/op");
+
+        measure("newMonster", 0, reps -> {
+            long sum = 0;
+            for (int i = 0; i < reps; i++) {
+                sum += new Monster().health();
+            }
+            return sum;
+        });
+
+        Monster monster = new Monster();
+        measure("Monster.takeDamage", 0, reps -> {
+            long sum = 0;
+            for (int i = 0; i < reps; i++) {
+                monster.takeDamage((i & 1) == 0 ? 1 : -1);
+                sum += monster.health();
+            }
+            return sum;
+        });
+
+        measure("Monster.damage", 0, reps -> {
+            double sum = 0;
+            for (int i = 0; i < reps; i++) {
+                sum += monster.damage();
+            }
+            return (long) sum;
+        });
+
+        BattleEngine potionEngine = newEngine(2);
+        potionEngine.addHealthPotion(30);
+        ItemType potion = potionEngine.getInventory().peekNext();
+        measure("Item.use(potion)", 0, reps -> {
+            for (int i = 0; i < reps; i++) {
+                potion.use(potionEngine);
+            }
+            return potionEngine.getPlayerHealth();
+        });
+
+        for (int count : MONSTER_COUNTS) {
+            BattleEngine engine = newEngine(count);
+
+            measure("countLivingMonsters", count, reps -> {
+                long sum = 0;
+                for (int i = 0; i < reps; i++) {
+                    sum += engine.countLivingMonsters();
+                }
+                return sum;
+            });
+
+            measure("getRandomLivingMonster", count, reps -> {
+                long sum = 0;
+                for (int i = 0; i < reps; i++) {
+                    sum += engine.getRandomLivingMonster().speed();
+                }
+                return sum;
+            });
+
+            // One actor per monster; each advance reschedules the one that acted
+            TurnScheduler scheduler = new TurnScheduler(count);
+            for (int i = 0; i < count; i++) {
+                scheduler.add(i, engine.getMonsterPool().speed(i));
+            }
+            measure("TurnScheduler.advance", count, reps -> {
+                long sum = 0;
+                for (int i = 0; i < reps; i++) {
+                    sum += scheduler.advance();
+                }
+                return sum;
+            });
+
+            // A zero-damage bomb walks every monster without changing the state
+            engine.addBomb(0);
+            ItemType bomb = engine.getInventory().peekNext();
+            measure("Item.use(bomb)", count, reps -> {
+                for (int i = 0; i < reps; i++) {
+                    bomb.use(engine);
+                }
+                return engine.countLivingMonsters();
+            });
+        }
+    }
+
+    /**
+     * Build a headless engine with the given number of monsters
+     */
+    private static BattleEngine newEngine(int monsters) {
+        BattleEngine engine = new BattleEngine(new HeadlessBattleView(() -> 0));
+        engine.spawnMonsters(monsters);
+        return engine;
+    }
+
+    /**
+     * Warm up, then time the op and record the median ns/op
+     */
+    private void measure(String name, int monsters, Op op) {
+        // Warmup - also finds a rep count that takes a measurable time
+        int reps = 1;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < warmupNanos) {
+            long t = System.nanoTime();
+            blackhole += op.run(reps);
+            long elapsed = System.nanoTime() - t;
+            if (elapsed < measureNanos / 10 && reps < (1 << 30)) {
+                reps *= 2;
+            }
+        }
+
+        double[] samples = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long t = System.nanoTime();
+            blackhole += op.run(reps);
+            samples[i] = (double) (System.nanoTime() - t) / reps;
+        }
+        Arrays.sort(samples);
+        double median = samples[iterations / 2];
+
+        results.put(key(name, monsters), median);
+        System.out.printf("%-32s %10s %14.2f%n", name, monsters == 0 ? "-" : monsters, median);
+    }
+
+    private static String key(String name, int monsters) {
+        return name + "," + monsters;
+    }
+
+    /**
+     * Save results as "name,monsters,nsPerOp" lines
+     */
+    public void save(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Double> e : results.entrySet()) {
+            lines.add(e.getKey() + "," + e.getValue());
+        }
+        Files.write(file, lines);
+    }
+
+    /**
+     * Compare against a saved baseline
+     * @return true if nothing got slower by more than the tolerance
+     */
+    public boolean compare(Path file, double tolerance) throws IOException {
+        boolean ok = true;
+        for (String line : Files.readAllLines(file)) {
+            String[] parts = line.split(",");
+            if (parts.length != 3) continue;
+            Double now = results.get(key(parts[0], Integer.parseInt(parts[1])));
+            if (now == null) continue;
+            double before = Double.parseDouble(parts[2]);
+            if (now > before * (1 + tolerance)) {
+                System.out.printf("REGRESSION %s (%s monsters): %.2f -> %.2f ns/op%n",
+                    parts[0], parts[1], before, now);
+                ok = false;
+            }
+        }
+        if (ok) {
+            System.out.println("No regressions against " + file);
+        }
+        return ok;
+    }
+}
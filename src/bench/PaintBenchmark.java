@@ -0,0 +1,140 @@
+package bench;
+import game.MonsterPool;
+import gui.MonsterDisplayPanel;
+import gui.MonsterGridCanvas;
+import gui.PlayerStatusPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+/**
+ * PaintBenchmark - Time and garbage per frame for the panels' paint paths
+ *
+ * Paints panels into an offscreen image over and over and reports the
+ * time and the bytes allocated per frame (measured with the JVM's
+ * per-thread allocation counter). Runs headless.
+ *
+ * Swing itself allocates a little in every paint() (it copies the Graphics),
+ * so a plain bordered JPanel is measured too: a panel whose own painting
+ * allocates nothing comes out at about that number.
+ *
+ * Usage:
+ *   java -Djava.awt.headless=true -cp bin bench.PaintBenchmark [frames]
+ */
+public class PaintBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * One thing to do per frame
+     */
+    interface Frame {
+        void run(int frame);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        SwingUtilities.invokeAndWait(() -> runAll(frames));
+    }
+
+    private static void runAll(int frames) {
+        System.out.printf("%-48s %12s %14s%n", "benchmark", "us/frame", "bytes/frame");
+
+        PlayerStatusPanel status = new PlayerStatusPanel(100);
+        Graphics2D statusGraphics = layOut(status, 760, 90);
+        measure("PlayerStatusPanel.paint", frames, frame -> status.paint(statusGraphics));
+
+        // The health bar on its own (the panel's CENTER component)
+        Component healthBar = ((BorderLayout) status.getLayout()).getLayoutComponent(BorderLayout.CENTER);
+        measure("PlayerStatusPanel health bar", frames, frame -> healthBar.paint(statusGraphics));
+
+        // Swing's own cost of painting a bordered panel, for comparison
+        JPanel plain = new JPanel();
+        plain.setBorder(BorderFactory.createLineBorder(Color.WHITE, 2));
+        plain.setSize(healthBar.getSize());
+        measure("plain bordered JPanel (Swing floor)", frames, frame -> plain.paint(statusGraphics));
+        measure("PlayerStatusPanel.setHealth (same)", frames, frame -> status.setHealth(60));
+        measure("PlayerStatusPanel.setHealth (changing)", frames, frame -> status.setHealth(frame % 100));
+        measure("PlayerStatusPanel.setHealth+paint", frames, frame -> {
+            status.setHealth(frame % 100);
+            status.paint(statusGraphics);
+        });
+
+        MonsterPool pool = new MonsterPool();
+        for (int i = 0; i < 50; i++) {
+            pool.spawn();
+        }
+        // The panel's own background and titled border, without tiles
+        MonsterDisplayPanel empty = new MonsterDisplayPanel();
+        Graphics2D emptyGraphics = layOut(empty, 760, 520);
+        measure("MonsterDisplayPanel.paint (empty)", frames / 10, frame -> empty.paint(emptyGraphics));
+
+        MonsterDisplayPanel monsters = new MonsterDisplayPanel();
+        monsters.setMonsters(pool.asList());
+        Graphics2D monsterGraphics = layOut(monsters, 760, 520);
+        measure("MonsterDisplayPanel.paint (50)", frames / 10, frame -> monsters.paint(monsterGraphics));
+
+        monsters.setTileImageCache(true);
+        measure("MonsterDisplayPanel.paint (50, cached)", frames / 10, frame -> monsters.paint(monsterGraphics));
+
+        // 10,000 monsters on one canvas: only the visible cells are painted
+        MonsterPool wave = new MonsterPool();
+        for (int i = 0; i < 10_000; i++) {
+            wave.spawn();
+        }
+        MonsterDisplayPanel grid = new MonsterDisplayPanel();
+        grid.setCanvasMode(true);
+        grid.setMonsters(wave.asList());
+        Graphics2D gridGraphics = layOut(grid, 760, 520);
+        measure("MonsterDisplayPanel.paint (10000, canvas)", frames / 10, frame -> grid.paint(gridGraphics));
+        measure("MonsterDisplayPanel.setMonsters (10000, canvas)", frames / 10,
+            frame -> grid.setMonsters(wave.asList()));
+
+        // The canvas on its own, without the panel's border and scroll pane
+        MonsterGridCanvas canvas = new MonsterGridCanvas();
+        canvas.setMonsters(wave.asList());
+        Graphics2D canvasGraphics = layOut(canvas, 760, 520);
+        measure("MonsterGridCanvas.paint (10000)", frames / 10, frame -> canvas.paint(canvasGraphics));
+    }
+
+    /**
+     * Size and lay out a panel, and get a Graphics to paint it into
+     */
+    private static Graphics2D layOut(JComponent panel, int width, int height) {
+        panel.setSize(width, height);
+        layOutTree(panel);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        return image.createGraphics();
+    }
+
+    private static void layOutTree(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layOutTree(child);
+            }
+        }
+    }
+
+    private static void measure(String name, int frames, Frame body) {
+        // Warm up
+        for (int i = 0; i < frames; i++) {
+            body.run(i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            body.run(i);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        System.out.printf("%-48s %12.2f %14.1f%n", name, nanos / 1000.0 / frames, (double) bytes / frames);
+    }
+}
@@ -0,0 +1,127 @@
+package game;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AbilityRegistry - Special abilities by number instead of by name
+ *
+ * Every ability name gets a small id the first time it is seen (id 0 is
+ * "no special"). Monsters and MonsterPools keep just that id, so a wave of
+ * "Fire Breath" monsters shares one String.
+ *
+ * A registry object holds what each ability does. Instead of checking
+ * special().equals("Fire Breath"), then "Poison", then ... on every
+ * attack, the game calls trigger(id, monster), which is one array lookup:
+ *
+ *   AbilityRegistry abilities = new AbilityRegistry();
+ *   abilities.register("Fire Breath", monster -> playerHealth -= 10);
+ *   ...
+ *   abilities.trigger(attacker.specialId(), index);
+ *
+ * The id table is shared by the whole program and safe to use from any
+ * thread. A registry's handlers are not - set them up before the battle.
+ */
+public class AbilityRegistry {
+
+    // Id of "no special ability"
+    public static final int NONE = 0;
+
+    // Name <-> id, shared by everything
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static volatile String[] names = {""};
+
+    static {
+        IDS.put("", NONE);
+    }
+
+    /**
+     * What an ability does when its monster uses it
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param monster Index of the monster using the ability
+         */
+        void trigger(int monster);
+    }
+
+    // This registry's handlers, by ability id
+    private Handler[] handlers = new Handler[8];
+
+    /**
+     * Get the id for an ability name, giving it one if it is new
+     * @param name The ability name ("" or null for none)
+     * @return The ability's id
+     */
+    public static int idOf(String name) {
+        if (name == null) return NONE;
+        Integer id = IDS.get(name);
+        return id != null ? id : newId(name);
+    }
+
+    private static synchronized int newId(String name) {
+        Integer id = IDS.get(name);  // someone may have added it meanwhile
+        if (id != null) return id;
+
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = name;
+        names = grown;
+        IDS.put(name, names.length - 1);
+        return names.length - 1;
+    }
+
+    /**
+     * Get an ability's name
+     * @param id The ability's id
+     * @return The name ("" for none)
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * Count the ability names seen so far (including "none")
+     * @return How many ids there are
+     */
+    public static int count() {
+        return names.length;
+    }
+
+    /**
+     * Say what an ability does
+     * @param name The ability name
+     * @param handler Runs when a monster with this ability uses it
+     * @return The ability's id
+     */
+    public int register(String name, Handler handler) {
+        int id = idOf(name);
+        if (id >= handlers.length) {
+            handlers = Arrays.copyOf(handlers, Math.max(id + 1, handlers.length * 2));
+        }
+        handlers[id] = handler;
+        return id;
+    }
+
+    /**
+     * Use an ability
+     * @param id The ability's id (e.g. monster.specialId())
+     * @param monster Index of the monster using it
+     * @return true if the ability has a handler here
+     */
+    public boolean trigger(int id, int monster) {
+        if (id <= NONE || id >= handlers.length) return false;
+        Handler handler = handlers[id];
+        if (handler == null) return false;
+        handler.trigger(monster);
+        return true;
+    }
+
+    /**
+     * Check if an ability has a handler in this registry
+     * @param id The ability's id
+     * @return true if trigger() would do something
+     */
+    public boolean isRegistered(int id) {
+        return id > NONE && id < handlers.length && handlers[id] != null;
+    }
+}
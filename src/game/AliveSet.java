@@ -0,0 +1,142 @@
+package game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * AliveSet - Keeps track of which monsters are still alive
+ *
+ * Instead of scanning every monster to count the living ones or to pick a
+ * random target, the set keeps the living monsters' indices packed at the
+ * front of an array. When a monster dies its index is swapped with the
+ * last one and the size shrinks, so:
+ * - size() is O(1)
+ * - randomIndex() is O(1)
+ * - remove() is O(1)
+ * and none of them create any objects.
+ */
+public class AliveSet {
+
+    private int[] dense;   // living indices, packed at the front
+    private int[] slot;    // slot[index] = position in dense, or -1 if dead
+    private int size;
+
+    /**
+     * Constructor - an empty set
+     * @param capacity How many indices to make room for up front
+     */
+    public AliveSet(int capacity) {
+        capacity = Math.max(1, capacity);
+        dense = new int[capacity];
+        slot = new int[capacity];
+        Arrays.fill(slot, -1);
+    }
+
+    /**
+     * Track a list of monsters: every monster with health above 0 starts
+     * alive, and the monster removes itself from the set when takeDamage()
+     * drops its health to 0.
+     *
+     * Build a new set if you add monsters to the list afterwards.
+     * @param monsters The monsters to track
+     * @return The set of living indices into the list
+     */
+    public static AliveSet of(ArrayList<Monster> monsters) {
+        AliveSet set = new AliveSet(monsters.size());
+        for (int i = 0; i < monsters.size(); i++) {
+            Monster m = monsters.get(i);
+            m.track(set, i);
+            if (m.health() > 0) set.add(i);
+        }
+        return set;
+    }
+
+    /**
+     * Make an independent copy of this set
+     * @return A new set with the same living indices
+     */
+    public AliveSet copy() {
+        AliveSet copy = new AliveSet(1);
+        copy.dense = dense.clone();
+        copy.slot = slot.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Mark an index as alive (does nothing if it already is)
+     * @param index The monster's index
+     */
+    public void add(int index) {
+        if (index >= slot.length) {
+            int capacity = Math.max(index + 1, slot.length * 2);
+            dense = Arrays.copyOf(dense, capacity);
+            int old = slot.length;
+            slot = Arrays.copyOf(slot, capacity);
+            Arrays.fill(slot, old, capacity, -1);
+        }
+        if (slot[index] >= 0) return;
+        dense[size] = index;
+        slot[index] = size;
+        size++;
+    }
+
+    /**
+     * Mark an index as dead (does nothing if it already is)
+     * @param index The monster's index
+     */
+    public void remove(int index) {
+        if (index >= slot.length) return;
+        int s = slot[index];
+        if (s < 0) return;
+        // Move the last living index into the hole
+        int last = dense[--size];
+        dense[s] = last;
+        slot[last] = s;
+        slot[index] = -1;
+    }
+
+    /**
+     * Check if an index is alive
+     * @param index The monster's index
+     * @return true if it is in the set
+     */
+    public boolean contains(int index) {
+        return index < slot.length && slot[index] >= 0;
+    }
+
+    /**
+     * Get the number of living monsters
+     * @return The count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the k-th living index (in no particular order)
+     * @param k Position from 0 to size() - 1
+     * @return The monster's index
+     */
+    public int get(int k) {
+        return dense[k];
+    }
+
+    /**
+     * Pick a random living index
+     * @return The index, or -1 if nothing is alive
+     */
+    public int randomIndex() {
+        return randomIndex(GameRandom.current());
+    }
+
+    /**
+     * Pick a random living index using a given generator
+     * @param random Where the random number comes from
+     * @return The index, or -1 if nothing is alive
+     */
+    public int randomIndex(RandomGenerator random) {
+        if (size == 0) return -1;
+        return dense[random.nextInt(size)];
+    }
+}
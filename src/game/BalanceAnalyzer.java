@@ -0,0 +1,227 @@
+package game;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import gui.HeadlessBattleView;
+
+/**
+ * BalanceAnalyzer - How often does each build win at each difficulty?
+ *
+ * Plays many headless battles for every (build × difficulty) pair from
+ * GameDemo, with a scripted player, and prints tables of win rate,
+ * average turns and average HP left after a win.
+ *
+ * The battles are split across every core with fork/join. Each chunk of
+ * battles gets its own generator derived from the seed, so the workers
+ * share nothing while running and the same seed always gives the same
+ * tables, no matter how many cores there are.
+ *
+ * Usage:
+ *   java -Djava.awt.headless=true -cp bin game.BalanceAnalyzer [battlesPerCell] [seed]
+ */
+public class BalanceAnalyzer {
+
+    // Same choices as GameDemo.chooseDifficulty()
+    public static final int[] DIFFICULTY_MONSTERS = {2, 3, 4, 5};
+    public static final String[] DIFFICULTY_NAMES = {"Easy", "Medium", "Hard", "Extreme"};
+
+    // Battles per fork/join leaf task
+    private static final int CHUNK = 4096;
+
+    // Give up on a battle that runs this long (counts as a loss)
+    private static final int MAX_TURNS = 500;
+
+    /**
+     * The scripted player: potion or heal when low, bomb a crowd, otherwise attack
+     */
+    public static final PlayerPolicy SCRIPTED_PLAYER = engine -> {
+        ItemType next = engine.getInventory().peekNext();
+        String nextItem = next != null ? next.getName() : "";
+
+        if (engine.getPlayerHealth() * 100 < engine.getMaxHealth() * 35) {
+            return nextItem.equals("Health Potion") ? 3 : 2;
+        }
+        if (nextItem.equals("Bomb") && engine.countLivingMonsters() >= 3) {
+            return 3;
+        }
+        return 0;
+    };
+
+    /**
+     * Results - Totals for a batch of battles
+     */
+    public static class Results {
+        public long battles;
+        public long wins;
+        public long turns;
+        public long healthLeft;  // summed over wins only
+
+        void add(Results other) {
+            battles += other.battles;
+            wins += other.wins;
+            turns += other.turns;
+            healthLeft += other.healthLeft;
+        }
+
+        public double winRate() { return battles == 0 ? 0 : (double) wins / battles; }
+        public double averageTurns() { return battles == 0 ? 0 : (double) turns / battles; }
+        public double averageHealthLeft() { return wins == 0 ? 0 : (double) healthLeft / wins; }
+    }
+
+    private final ForkJoinPool pool;
+    private final PlayerPolicy player;
+
+    /**
+     * Constructor - uses every core and the scripted player
+     */
+    public BalanceAnalyzer() {
+        this(ForkJoinPool.commonPool(), SCRIPTED_PLAYER);
+    }
+
+    /**
+     * Constructor
+     * @param pool Where to run the battles
+     * @param player Plays every battle (must be safe to share between threads)
+     */
+    public BalanceAnalyzer(ForkJoinPool pool, PlayerPolicy player) {
+        this.pool = pool;
+        this.player = player;
+    }
+
+    public static void main(String[] args) {
+        long battles = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+        BalanceAnalyzer analyzer = new BalanceAnalyzer();
+        long start = System.nanoTime();
+        Results[][] table = analyzer.analyze(battles, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        printTable("WIN RATE (%)", table, r -> 100 * r.winRate());
+        printTable("AVERAGE TURNS", table, Results::averageTurns);
+        printTable("AVERAGE HP LEFT AFTER A WIN", table, Results::averageHealthLeft);
+
+        long total = battles * BattleEngine.BUILD_NAMES.length * DIFFICULTY_MONSTERS.length;
+        System.out.printf("%n%,d battles in %.2f s (%,.0f battles/s on %d threads)%n",
+            total, seconds, total / seconds, analyzer.pool.getParallelism());
+    }
+
+    /**
+     * Play every (build × difficulty) pair
+     * @param battlesPerCell How many battles per pair
+     * @param seed Base seed - the same seed gives the same results
+     * @return results[build][difficulty]
+     */
+    public Results[][] analyze(long battlesPerCell, long seed) {
+        int builds = BattleEngine.BUILD_NAMES.length;
+        int difficulties = DIFFICULTY_MONSTERS.length;
+        // Submit every pair at once so no core waits for the slowest pair to finish
+        BattleTask[][] tasks = new BattleTask[builds][difficulties];
+        for (int b = 0; b < builds; b++) {
+            for (int d = 0; d < difficulties; d++) {
+                long cellSeed = new SplittableRandom(seed + 31L * (b * difficulties + d)).nextLong();
+                tasks[b][d] = new BattleTask(b, DIFFICULTY_MONSTERS[d], cellSeed, 0, battlesPerCell);
+                pool.execute(tasks[b][d]);
+            }
+        }
+
+        Results[][] table = new Results[builds][difficulties];
+        for (int b = 0; b < builds; b++) {
+            for (int d = 0; d < difficulties; d++) {
+                table[b][d] = tasks[b][d].join();
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Play one battle headless and add it to the results
+     */
+    private void playBattle(int build, int monsters, SplittableRandom random, Results results) {
+        BattleEngine engine = new BattleEngine(new HeadlessBattleView(() -> 0), random);
+        engine.chooseBuild(build);
+        engine.spawnMonsters(monsters);
+        engine.addHealthPotion(30);
+        engine.addHealthPotion(30);
+        engine.addBomb(20);
+
+        while (!engine.isOver() && engine.getTurns() < MAX_TURNS) {
+            engine.playerTurn(player.chooseAction(engine));
+            if (!engine.isOver()) {
+                engine.monsterTurn();
+            }
+        }
+
+        boolean won = engine.playerWon();
+        results.battles++;
+        results.turns += engine.getTurns();
+        if (won) {
+            results.wins++;
+            results.healthLeft += engine.getPlayerHealth();
+        }
+    }
+
+    /**
+     * BattleTask - Plays battles [from, to) by splitting in halves until small
+     */
+    private class BattleTask extends RecursiveTask<Results> {
+        private final int build;
+        private final int monsters;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        BattleTask(int build, int monsters, long seed, long from, long to) {
+            this.build = build;
+            this.monsters = monsters;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Results compute() {
+            if (to - from <= CHUNK) {
+                // Each chunk's generator depends only on the seed and where the chunk starts
+                SplittableRandom random = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+                Results results = new Results();
+                for (long i = from; i < to; i++) {
+                    playBattle(build, monsters, random, results);
+                }
+                return results;
+            }
+            long mid = from + (to - from) / 2;
+            BattleTask left = new BattleTask(build, monsters, seed, from, mid);
+            BattleTask right = new BattleTask(build, monsters, seed, mid, to);
+            left.fork();
+            Results results = right.compute();
+            results.add(left.join());
+            return results;
+        }
+    }
+
+    /**
+     * Value - One number pulled out of a Results
+     */
+    private interface Value {
+        double of(Results results);
+    }
+
+    private static void printTable(String title, Results[][] table, Value value) {
+        System.out.println();
+        System.out.println(title);
+        System.out.printf("%-10s", "");
+        for (String name : DIFFICULTY_NAMES) {
+            System.out.printf("%10s", name);
+        }
+        System.out.println();
+        for (int b = 0; b < table.length; b++) {
+            System.out.printf("%-10s", BattleEngine.BUILD_NAMES[b]);
+            for (int d = 0; d < table[b].length; d++) {
+                System.out.printf("%10.1f", value.of(table[b][d]));
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package game;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.random.RandomGenerator;
+
+import gui.BattleView;
+import metrics.Metrics;
+
+/**
+ * BattleEngine - The rules of a monster battle, with no window attached
+ *
+ * The engine owns the monsters, the inventory and the player's stats.
+ * Everything it wants to show goes through a BattleView, so the same
+ * battle can run in the MonsterBattleGUI window or headless on a server.
+ *
+ * Pattern:
+ * 1. chooseBuild() - pick Fighter/Tank/Healer/Ninja stats
+ * 2. spawnMonsters() and add items
+ * 3. start() - push the starting state to the view
+ * 4. run() - play until someone wins
+ *
+ * Every random roll comes from the engine's RandomGenerator, so two
+ * engines built with the same seed play out exactly the same battle.
+ */
+public class BattleEngine {
+
+    // Build names, in button order
+    public static final String[] BUILD_NAMES = {"Fighter", "Tank", "Healer", "Ninja"};
+
+    // Where everything is displayed
+    private final BattleView view;
+
+    // Where every random roll comes from
+    private final RandomGenerator random;
+
+    // Game state
+    private MonsterPool monsters;
+    private Inventory inventory;
+
+    // Item types made so far, so equal items share one type and stack
+    private final HashMap<Integer, ItemType> potionTypes = new HashMap<>();
+    private final HashMap<Integer, ItemType> bombTypes = new HashMap<>();
+    private int playerHealth;
+    private int maxHealth;
+
+    // Player stats (customized by character choice)
+    private int playerDamage;
+    private int playerShield;
+    private int playerHeal;
+    private int playerSpeed;
+
+    // How many player turns have been played
+    private int turns;
+
+    // What monsters' special abilities do when they attack
+    private final AbilityRegistry abilities = new AbilityRegistry();
+
+    // Turn order by speed while runBySpeed() is playing (null otherwise)
+    private TurnScheduler scheduler;
+
+    // Scheduler actor numbers: the player is 0, monster i is i + 1
+    public static final int PLAYER_ACTOR = 0;
+
+    /**
+     * Constructor - default stats, no monsters, no items
+     * @param view Where to display the battle
+     */
+    public BattleEngine(BattleView view) {
+        this(view, GameRandom.current());
+    }
+
+    /**
+     * Constructor - a reproducible battle
+     * @param view Where to display the battle
+     * @param seed The same seed always plays out the same battle
+     */
+    public BattleEngine(BattleView view, long seed) {
+        this(view, GameRandom.seeded(seed));
+    }
+
+    /**
+     * Constructor - use your own random generator
+     * @param view Where to display the battle
+     * @param random Where every random roll comes from
+     */
+    public BattleEngine(BattleView view, RandomGenerator random) {
+        this.view = view;
+        this.random = random;
+        this.monsters = new MonsterPool();
+        this.inventory = new Inventory();
+        resetStats();
+        registerAbilities();
+    }
+
+    /**
+     * The built-in special abilities (add your own with getAbilities().register)
+     */
+    private void registerAbilities() {
+        abilities.register("Fire Breath", monster -> {
+            int extraDamage = 10;
+            playerHealth -= extraDamage;
+            view.updatePlayerHealth(playerHealth);
+            view.displayMessage("🔥 Fire Breath burns you for " + extraDamage + " damage!");
+        });
+        abilities.register("Regeneration", monster -> {
+            int healed = monsters.heal(monster, 5, monsters.maxHealth(monster));
+            if (healed > 0) {
+                view.displayMessage("💚 Monster #" + (monster + 1) + " regenerates " + healed + " health!");
+            }
+        });
+    }
+
+    /**
+     * Make an independent copy of the battle (e.g. for an AI to try moves on)
+     *
+     * Monsters, items and stats are copied; item types are shared. The copy
+     * has the built-in abilities, but not ones registered later with
+     * getAbilities() (their code belongs to this engine).
+     * @param view Where the copy displays things (usually a HeadlessBattleView)
+     * @param random Where the copy's random rolls come from
+     * @return The copy
+     */
+    public BattleEngine copy(BattleView view, RandomGenerator random) {
+        BattleEngine copy = new BattleEngine(view, random);
+        copy.monsters = monsters.copy();
+        copy.inventory = inventory.copy();
+        copy.potionTypes.putAll(potionTypes);
+        copy.bombTypes.putAll(bombTypes);
+        copy.playerHealth = playerHealth;
+        copy.maxHealth = maxHealth;
+        copy.playerDamage = playerDamage;
+        copy.playerShield = playerShield;
+        copy.playerHeal = playerHeal;
+        copy.playerSpeed = playerSpeed;
+        copy.turns = turns;
+        return copy;
+    }
+
+    /**
+     * Set the default stats before a build customizes them
+     */
+    private void resetStats() {
+        maxHealth = 100;
+        playerHealth = maxHealth;
+        playerDamage = 200;
+        playerShield = 50;
+        playerHeal = 50;
+        playerSpeed = 10;
+    }
+
+    // ==================== SETUP ====================
+
+    /**
+     * Pick the player's character build
+     * @param choice 0 = Fighter, 1 = Tank, 2 = Healer, 3 = Ninja
+     */
+    public void chooseBuild(int choice) {
+        resetStats();
+
+        // Customize stats based on character choice
+        if (choice == 0) {
+            // Fighter: high damage, low healing and shield
+            view.displayMessage("You chose Fighter! High damage, but weak defense.");
+            playerShield -= (int)(random.nextDouble() * 45 + 1) + 5;  // Reduce shield by 6-50
+            playerHeal -= (int)(random.nextDouble() * 46) + 5;        // Reduce heal by 5-50
+        } else if (choice == 1) {
+            // Tank: high shield, low damage and speed
+            view.displayMessage("You chose Tank! Tough defense, but slow attacks.");
+            playerSpeed -= (int)(random.nextDouble() * 9) + 1;        // Reduce speed by 1-9
+            playerDamage -= (int)(random.nextDouble() * 100) + 100;   // Reduce damage by 100-199
+        } else if (choice == 2) {
+            // Healer: high healing, low damage and shield
+            view.displayMessage("You chose Healer! Great recovery, but fragile.");
+            playerDamage -= (int)(random.nextDouble() * 26) + 5;      // Reduce damage by 5-30
+            playerShield -= (int)(random.nextDouble() * 46) + 5;      // Reduce shield by 5-50
+        } else {
+            // Ninja: high speed, low healing
+            view.displayMessage("You chose Ninja! Fast and deadly, but risky.");
+            playerHeal -= (int)(random.nextDouble() * 46) + 5;        // Reduce heal by 5-50
+            // (GameDemo always reset max health to 100 after the build, so there is no health penalty)
+        }
+        playerHealth = maxHealth;
+    }
+
+    /**
+     * Add randomly generated monsters
+     * @param count How many monsters to add
+     */
+    public void spawnMonsters(int count) {
+        spawnMonsters(count, "");
+    }
+
+    /**
+     * Add randomly generated monsters with a special ability
+     * @param count How many monsters to add
+     * @param special The ability name (see getAbilities())
+     */
+    public void spawnMonsters(int count, String special) {
+        for (int i = 0; i < count; i++) {
+            monsters.spawn(special, random);
+        }
+    }
+
+    /**
+     * Add a health potion to inventory
+     * @param healAmount How much HP the potion restores
+     */
+    public void addHealthPotion(int healAmount) {
+        inventory.add(potionTypes.computeIfAbsent(healAmount, amount ->
+            new ItemType("Health Potion", "🧪", ItemEffect.heal(amount))));
+    }
+
+    /**
+     * Add a bomb to inventory (damages all monsters)
+     * @param damage How much damage the bomb does to each monster
+     */
+    public void addBomb(int damage) {
+        inventory.add(bombTypes.computeIfAbsent(damage, amount ->
+            new ItemType("Bomb", "💣", ItemEffect.damageAll(amount))));
+    }
+
+    /**
+     * Show the starting state and label the buttons for battle
+     */
+    public void start() {
+        view.setPlayerMaxHealth(maxHealth);
+        view.updatePlayerHealth(playerHealth);
+        view.setPlayerSpeed(playerSpeed);
+        view.updateMonsters(monsters);
+        view.updateInventory(inventory);
+
+        String[] buttons = {"Attack", "Defend", "Heal", "Use Item"};
+        view.setActionButtons(buttons);
+    }
+
+    // ==================== BATTLE ====================
+
+    /**
+     * Main game loop - plays until the player or all monsters are defeated
+     */
+    public void run() {
+        run(engine -> view.waitForAction());  // Wait for button click
+    }
+
+    /**
+     * Main game loop with the player's actions chosen by a policy
+     * @param player Chooses each player action
+     */
+    public void run(PlayerPolicy player) {
+        // Keep playing while monsters alive and player alive
+        while (!isOver()) {
+
+            // PLAYER'S TURN
+            view.displayMessage("Your turn! HP: " + playerHealth + " | DMG: " + playerDamage);
+            int action = player.chooseAction(this);
+            if (action < 0) return;             // Interrupted
+            long start = System.nanoTime();
+            playerTurn(action);
+            Metrics.TURN.recordSince(start);
+            view.pause(500);
+
+            // MONSTER'S TURN (if any alive)
+            if (!isOver()) {
+                start = System.nanoTime();
+                monsterTurn();
+                Metrics.TURN.recordSince(start);
+                view.pause(500);
+            }
+        }
+
+        announceResult();
+    }
+
+    /**
+     * Main game loop where faster fighters act more often (waits for the GUI)
+     */
+    public void runBySpeed() {
+        runBySpeed(engine -> view.waitForAction());
+    }
+
+    /**
+     * Main game loop where faster fighters act more often
+     *
+     * Instead of taking turns with one random monster, the player and every
+     * monster are put on a TurnScheduler timeline: whoever's next turn comes
+     * first acts, and fast ones come around again sooner. Monsters leave the
+     * timeline as they die.
+     * @param player Chooses each player action
+     */
+    public void runBySpeed(PlayerPolicy player) {
+        scheduler = new TurnScheduler(monsters.size() + 1);
+        scheduler.add(PLAYER_ACTOR, playerSpeed);
+        for (int i = 0; i < monsters.size(); i++) {
+            if (monsters.health(i) > 0) {
+                scheduler.add(i + 1, monsters.speed(i));
+            }
+        }
+        monsters.setLifeListener(new MonsterPool.LifeListener() {
+            @Override public void died(int monster) { scheduler.remove(monster + 1); }
+            @Override public void revived(int monster) { scheduler.add(monster + 1, monsters.speed(monster)); }
+        });
+
+        try {
+            while (!isOver()) {
+                int actor = scheduler.advance();
+                long start;
+                if (actor == PLAYER_ACTOR) {
+                    view.displayMessage("Your turn! HP: " + playerHealth + " | DMG: " + playerDamage);
+                    int action = player.chooseAction(this);
+                    if (action < 0) return;             // Interrupted
+                    start = System.nanoTime();
+                    playerTurn(action);
+                } else {
+                    start = System.nanoTime();
+                    monsterAttack(actor - 1);
+                    view.updateMonsters(monsters);
+                }
+                Metrics.TURN.recordSince(start);
+                view.pause(500);
+            }
+        } finally {
+            monsters.setLifeListener(null);
+            scheduler = null;
+        }
+
+        announceResult();
+    }
+
+    /**
+     * Show the victory or defeat message
+     */
+    private void announceResult() {
+        // Game over!
+        if (playerWon()) {
+            view.displayMessage("🎉 VICTORY! You defeated all monsters!");
+        } else {
+            view.displayMessage("💀 DEFEAT! You have been defeated...");
+        }
+    }
+
+    /**
+     * Play one player action
+     * @param action 0 = Attack, 1 = Defend, 2 = Heal, 3 = Use Item
+     */
+    public void playerTurn(int action) {
+        switch (action) {
+            case 0: attackMonster(); break;
+            case 1: defend(); break;
+            case 2: heal(); break;
+            case 3: useItem(); break;
+        }
+        turns++;
+        view.updateMonsters(monsters);
+    }
+
+    /**
+     * Play one monster action
+     */
+    public void monsterTurn() {
+        monsterAttack();
+        view.updateMonsters(monsters);
+    }
+
+    /**
+     * Check if the battle is finished
+     * @return true if the player or every monster is defeated
+     */
+    public boolean isOver() {
+        return playerHealth <= 0 || countLivingMonsters() == 0;
+    }
+
+    /**
+     * Check if the player won
+     * @return true if the player is alive and every monster is defeated
+     */
+    public boolean playerWon() {
+        return playerHealth > 0 && countLivingMonsters() == 0;
+    }
+
+    /**
+     * Attack a random monster (uses playerDamage stat)
+     */
+    private void attackMonster() {
+        int target = randomLivingIndex();
+        if (target >= 0) {
+            // Calculate damage based on player's damage stat
+            int baseDamage = (int)(playerDamage * 0.15);  // 15% of damage stat
+            int damage = baseDamage + (int)(random.nextDouble() * baseDamage);  // ±50% variance
+            monsters.takeDamage(target, damage);
+            view.displayMessage("💥 You hit for " + damage + " damage!");
+
+            // Show which one we hit (the view animates it, the battle goes on)
+            view.flashMonster(target, 300);
+        }
+    }
+
+    /**
+     * Defend (uses playerShield stat to reduce damage)
+     */
+    private void defend() {
+        view.displayMessage("🛡️ You brace for impact! (Shield: " + playerShield + ")");
+        // Note: In a real game, you'd track this state and reduce incoming damage
+        // This is just demonstrating the character stats
+    }
+
+    /**
+     * Heal yourself (uses playerHeal stat)
+     */
+    private void heal() {
+        int healAmount = (int)(playerHeal * 0.5) + (int)(random.nextDouble() * playerHeal * 0.5);
+        playerHealth = Math.min(maxHealth, playerHealth + healAmount);
+        view.updatePlayerHealth(playerHealth);
+        view.displayMessage("💚 You healed for " + healAmount + " HP!");
+    }
+
+    /**
+     * Use an item from inventory
+     */
+    private void useItem() {
+        if (inventory.isEmpty()) {
+            view.displayMessage("No items in inventory!");
+            return;
+        }
+
+        // Use the oldest kind of item (just lowers its count)
+        ItemType type = inventory.peekNext();
+        inventory.take(type);
+        view.updateInventory(inventory);
+        type.use(this);  // The item knows what to do!
+    }
+
+    // ==================== ITEM EFFECTS ====================
+    // Used by EffectInterpreter
+
+    /**
+     * Restore the player's HP, up to max health
+     * @param amount How much to restore
+     */
+    void restoreHealth(int amount) {
+        playerHealth = Math.min(maxHealth, playerHealth + amount);
+        view.updatePlayerHealth(playerHealth);
+    }
+
+    /**
+     * Change one of the player's stats
+     * @param stat Which stat
+     * @param amount How much to add (negative to lower it)
+     */
+    void addStat(ItemEffect.Stat stat, int amount) {
+        switch (stat) {
+            case DAMAGE: playerDamage += amount; break;
+            case SHIELD: playerShield += amount; break;
+            case HEAL: playerHeal += amount; break;
+            case SPEED:
+                playerSpeed += amount;
+                view.setPlayerSpeed(playerSpeed);
+                if (scheduler != null) scheduler.setSpeed(PLAYER_ACTOR, playerSpeed);
+                break;
+            case MAX_HEALTH:
+                maxHealth = Math.max(1, maxHealth + amount);
+                playerHealth = Math.min(playerHealth, maxHealth);
+                view.setPlayerMaxHealth(maxHealth);
+                view.updatePlayerHealth(playerHealth);
+                break;
+        }
+    }
+
+    /**
+     * Monster attacks player
+     */
+    private void monsterAttack() {
+        monsterAttack(randomLivingIndex());
+    }
+
+    /**
+     * One particular monster attacks the player
+     * @param attacker The monster's index (-1 does nothing)
+     */
+    private void monsterAttack(int attacker) {
+        if (attacker >= 0) {
+            int damage = (int)(random.nextDouble() * monsters.damage(attacker));
+            playerHealth -= damage;
+            view.updatePlayerHealth(playerHealth);
+            view.displayMessage("👹 Monster attacks! You take " + damage + " damage!");
+
+            // Special ability: one table lookup by id
+            abilities.trigger(monsters.specialId(attacker), attacker);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Count how many monsters are still alive
+     * @return The number of living monsters
+     */
+    public int countLivingMonsters() {
+        return monsters.countLiving();
+    }
+
+    /**
+     * Get a random living monster
+     * @return A living monster, or null if all are defeated
+     */
+    public Monster getRandomLivingMonster() {
+        int i = randomLivingIndex();
+        return i < 0 ? null : monsters.get(i);
+    }
+
+    /**
+     * Pick a random living monster's index
+     * @return The index, or -1 if all are defeated
+     */
+    private int randomLivingIndex() {
+        return monsters.randomLiving(random);
+    }
+
+    /**
+     * Get the character name based on stats (for messages)
+     * @return Fighter, Tank, Healer or Ninja
+     */
+    public String getCharacterName() {
+        if (playerDamage > 150 && playerShield < 30) return "Fighter";
+        if (playerShield > 40 && playerDamage < 150) return "Tank";
+        if (playerHeal > 40 && playerDamage < 180) return "Healer";
+        return "Ninja";
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public ArrayList<Monster> getMonsters() { return monsters.asList(); }
+    public MonsterPool getMonsterPool() { return monsters; }
+    public Inventory getInventory() { return inventory; }
+    public BattleView getView() { return view; }
+    public AbilityRegistry getAbilities() { return abilities; }
+    public TurnScheduler getTurnScheduler() { return scheduler; }
+    public int getPlayerHealth() { return playerHealth; }
+    public int getMaxHealth() { return maxHealth; }
+    public int getPlayerDamage() { return playerDamage; }
+    public int getPlayerShield() { return playerShield; }
+    public int getPlayerHeal() { return playerHeal; }
+    public int getPlayerSpeed() { return playerSpeed; }
+    public int getTurns() { return turns; }
+    public RandomGenerator getRandom() { return random; }
+}
@@ -0,0 +1,135 @@
+package game;
+import java.time.Duration;
+
+import gui.ActionChannel;
+import gui.HeadlessBattleView;
+
+/**
+ * BattleSession - One player's battle running inside a SessionHost
+ *
+ * The session has its own BattleEngine. Instead of the button panel, the
+ * player's actions arrive through submit() (e.g. from a network handler)
+ * and the battle's thread blocks until one is there, exactly like
+ * MonsterBattleGUI.waitForAction() waits for a click. Both use an
+ * ActionChannel, so a few actions can be sent ahead of time, an idle
+ * player can be timed out and a session can be cancelled.
+ */
+public class BattleSession implements Runnable {
+
+    private final long id;
+    private final int build;
+    private final int monsterCount;
+    private final BattleEngine engine;
+    private final ActionChannel actions = new ActionChannel();
+
+    // Read by other threads while the battle runs
+    private volatile String lastMessage = "";
+    private volatile boolean finished;
+
+    // How long to wait for each action before ending the battle (null = forever)
+    private volatile Duration turnTimeout;
+
+    // How many actions a client may send ahead of the battle
+    private static final int TYPE_AHEAD = 4;
+
+    /**
+     * Constructor
+     * @param id The session's id
+     * @param build 0 = Fighter, 1 = Tank, 2 = Healer, 3 = Ninja
+     * @param monsterCount How many monsters to fight
+     * @param seed Seed for the battle's random rolls
+     */
+    public BattleSession(long id, int build, int monsterCount, long seed) {
+        this.id = id;
+        this.build = build;
+        this.monsterCount = monsterCount;
+        this.engine = new BattleEngine(new SessionView(), seed);
+        actions.setTypeAhead(TYPE_AHEAD);
+    }
+
+    /**
+     * Play the battle (blocks until it ends or the thread is interrupted)
+     */
+    @Override
+    public void run() {
+        try {
+            engine.chooseBuild(build);
+            engine.spawnMonsters(monsterCount);
+            engine.addHealthPotion(30);
+            engine.addHealthPotion(30);
+            engine.addBomb(20);
+            engine.start();
+            engine.run();
+        } finally {
+            finished = true;
+        }
+    }
+
+    /**
+     * Send the player's next action to the battle
+     * @param action 0 = Attack, 1 = Defend, 2 = Heal, 3 = Use Item
+     * @return false if the action was dropped (too many queued, or cancelled)
+     */
+    public boolean submit(int action) {
+        if (action < 0 || action > 3) {
+            throw new IllegalArgumentException("Action must be 0-3: " + action);
+        }
+        return actions.offer(action);
+    }
+
+    /**
+     * End the battle early - the session's thread stops waiting and finishes
+     */
+    public void cancel() {
+        actions.cancel();
+    }
+
+    /**
+     * End the battle if the player takes too long to act
+     * @param timeout Max wait per action, or null to wait forever
+     */
+    public void setTurnTimeout(Duration timeout) {
+        this.turnTimeout = timeout;
+    }
+
+    public long getId() { return id; }
+    public BattleEngine getEngine() { return engine; }
+    public String getLastMessage() { return lastMessage; }
+
+    /**
+     * Check if the battle is blocked waiting for the player
+     * @return true if an action is needed
+     */
+    public boolean isWaitingForAction() {
+        return actions.isAwaiting();
+    }
+
+    /**
+     * Check if the battle is over (won, lost or cancelled)
+     * @return true once run() has returned
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * SessionView - A headless view that takes actions from the session's channel
+     */
+    private class SessionView extends HeadlessBattleView {
+
+        SessionView() {
+            super(() -> -1);
+        }
+
+        @Override
+        public void displayMessage(String message) {
+            lastMessage = message;
+        }
+
+        @Override
+        public int waitForAction() {
+            Duration timeout = turnTimeout;
+            return timeout == null ? actions.await() : actions.await(timeout);
+        }
+    }
+}
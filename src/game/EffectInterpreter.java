@@ -0,0 +1,63 @@
+package game;
+import gui.BattleView;
+
+/**
+ * EffectInterpreter - Applies ItemEffects to a battle
+ * 
+ * Every effect becomes a few changes to the engine's numbers plus a
+ * message. Damage to all monsters is one pass over the MonsterPool's
+ * health array, however many monsters there are.
+ * 
+ * Items are applied step by step, so an item with three bombs in it
+ * shows three BOOM messages.
+ */
+public final class EffectInterpreter {
+    
+    private EffectInterpreter() {
+    }
+    
+    /**
+     * Apply an effect to a battle
+     * @param engine The battle
+     * @param effect What to do
+     */
+    public static void apply(BattleEngine engine, ItemEffect effect) {
+        apply(engine, effect, null);
+    }
+    
+    /**
+     * Apply an item's effect to a battle
+     * @param engine The battle
+     * @param effect What to do
+     * @param itemName The item being used, for the messages (null if none)
+     */
+    public static void apply(BattleEngine engine, ItemEffect effect, String itemName) {
+        BattleView view = engine.getView();
+        
+        if (effect instanceof ItemEffect.Heal heal) {
+            engine.restoreHealth(heal.amount());
+            view.displayMessage("💚 " + (itemName == null ? "" : "Used " + itemName + "! ")
+                + "Healed " + heal.amount() + " HP!");
+        } else if (effect instanceof ItemEffect.DamageAll damage) {
+            engine.getMonsterPool().damageAll(damage.amount());
+            view.displayMessage("💣 BOOM! All monsters take " + damage.amount() + " damage!");
+            view.updateMonsters(engine.getMonsterPool());
+        } else if (effect instanceof ItemEffect.DamageTarget damage) {
+            int target = engine.getMonsterPool().randomLiving(engine.getRandom());
+            if (target >= 0) {
+                engine.getMonsterPool().takeDamage(target, damage.amount());
+                view.displayMessage("🎯 Monster #" + (target + 1) + " takes " + damage.amount() + " damage!");
+                view.updateMonsters(engine.getMonsterPool());
+            }
+        } else if (effect instanceof ItemEffect.Buff buff) {
+            engine.addStat(buff.stat(), buff.amount());
+            view.displayMessage("✨ " + buff.stat() + (buff.amount() >= 0 ? " +" : " ") + buff.amount() + "!");
+        } else if (effect instanceof ItemEffect.Composite composite) {
+            for (ItemEffect part : composite.effects()) {
+                apply(engine, part, itemName);
+            }
+        } else if (effect instanceof ItemEffect.Callback callback) {
+            callback.action().run();
+        }
+    }
+}
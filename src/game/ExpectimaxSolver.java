@@ -0,0 +1,696 @@
+package game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import gui.HeadlessBattleView;
+
+/**
+ * ExpectimaxSolver - The best possible play and the exact chance to win
+ *
+ * Works out, for a battle already set up in a BattleEngine, the win
+ * probability of every action in every state, assuming the player always
+ * picks the best one. The chance nodes are the engine's own dice: which
+ * monster is hit or attacks, how hard, and how much a heal restores.
+ *
+ * HP is discretized: with a quantum of q, every HP value and damage roll is
+ * counted in steps of q (rounded), so monsters have at most 100/q + 1 levels.
+ * A quantum of 1 is the real game; bigger ones trade accuracy for speed.
+ *
+ * States are grouped into layers: one layer per (monster levels, item
+ * counts), holding one value per player HP level. Monster HP and items only
+ * go down, so a layer depends only on smaller layers, plus itself through
+ * Heal and Defend; those loops are solved by policy iteration over the layer.
+ * Solved layers go into a transposition table: an open-addressing table of
+ * Zobrist hashes (one random long per monster level and item count, XORed
+ * together and updated as things change) pointing into one double[] arena.
+ * Two layers sharing a 64-bit hash is possible but vanishingly unlikely.
+ *
+ * The model plays alternating turns like run() and knows item effects
+ * Heal and DamageAll. Monsters with special abilities and other items
+ * are refused with an IllegalArgumentException.
+ *
+ * Usage (the best possible win rate for every build and difficulty):
+ *   java -cp bin game.ExpectimaxSolver [battlesPerCell] [quantum]
+ */
+public class ExpectimaxSolver implements PlayerPolicy {
+
+    // 0 = Attack, 1 = Defend, 2 = Heal, 3 = Use Item
+    private static final int ACTIONS = 4;
+
+    // Policy iteration: at most this many rounds, switching only for a gain over EPSILON
+    private static final int MAX_POLICY_ROUNDS = 100;
+    private static final double EPSILON = 1e-12;
+
+    // A pivot this small means the system has no single solution
+    private static final double SINGULAR = 1e-12;
+
+    // Value iteration (the fallback) stops when nothing moves more than EPSILON
+    private static final int MAX_SWEEPS = 1_000_000;
+
+    private static final long EMPTY = 0L;
+
+    // ---- The model (fixed when the solver is made) ----
+    private final int quantum;
+    private final int maxLevel;            // player HP levels: 0 (dead) .. maxLevel
+    private final int monsterCount;
+    private final int[] startLevel;
+    private final int[][] hitUnits;        // monster i's attack: damage in levels...
+    private final double[][] hitChance;    // ...and its chance
+    private final int[] attackUnits;       // the player's attack
+    private final double[] attackChance;
+    private final int[] healUnits;         // the player's heal
+    private final double[] healChance;
+    private final ItemType[] itemTypes;    // in the order the inventory uses them
+    private final boolean[] itemHeals;     // true = Heal, false = DamageAll
+    private final int[] itemUnits;
+
+    // ---- Zobrist keys ----
+    private final long[][] monsterKeys;    // [monster][level]
+    private final long[][] itemKeys;       // [item type][count]
+
+    // ---- Transposition table: layer hash -> offset of its values in the arena ----
+    private long[] keys = new long[1 << 12];
+    private int[] offsets = new int[1 << 12];
+    private int layers;
+
+    // Each layer stores W[0..maxLevel]: the win chance just before the monsters act
+    private double[] arena = new double[1 << 16];
+    private int arenaSize;
+
+    /**
+     * Constructor - model the battle as it stands now
+     * @param engine The battle (not changed)
+     * @param quantum HP per level (1 = exact, 5 or 10 for big battles)
+     */
+    public ExpectimaxSolver(BattleEngine engine, int quantum) {
+        if (quantum < 1) {
+            throw new IllegalArgumentException("quantum must be at least 1");
+        }
+        this.quantum = quantum;
+        maxLevel = levelOf(engine.getMaxHealth());
+
+        // Monsters
+        MonsterPool pool = engine.getMonsterPool();
+        monsterCount = pool.size();
+        startLevel = new int[monsterCount];
+        hitUnits = new int[monsterCount][];
+        hitChance = new double[monsterCount][];
+        int topLevel = 0;
+        for (int i = 0; i < monsterCount; i++) {
+            if (pool.specialId(i) != AbilityRegistry.NONE) {
+                throw new IllegalArgumentException("Can't model special abilities: " + pool.get(i).special());
+            }
+            startLevel[i] = levelOf(pool.health(i));
+            topLevel = Math.max(topLevel, startLevel[i]);
+            Roll hit = Roll.truncated(0, pool.damage(i)).inLevels(quantum);
+            hitUnits[i] = hit.units;
+            hitChance[i] = hit.chance;
+        }
+
+        // Player: same formulas as attackMonster() and heal()
+        int baseDamage = (int) (engine.getPlayerDamage() * 0.15);
+        Roll attack = Roll.truncated(baseDamage, baseDamage).inLevels(quantum);
+        attackUnits = attack.units;
+        attackChance = attack.chance;
+        int heal = engine.getPlayerHeal();
+        Roll healRoll = Roll.truncated((int) (heal * 0.5), heal * 0.5).inLevels(quantum);
+        healUnits = healRoll.units;
+        healChance = healRoll.chance;
+
+        // Items
+        ArrayList<Inventory.Stack> stacks = engine.getInventory().getStacks();
+        itemTypes = new ItemType[stacks.size()];
+        itemHeals = new boolean[stacks.size()];
+        itemUnits = new int[stacks.size()];
+        int topCount = 0;
+        for (int s = 0; s < stacks.size(); s++) {
+            ItemType type = stacks.get(s).getType();
+            itemTypes[s] = type;
+            ItemEffect effect = type.getEffect();
+            if (effect instanceof ItemEffect.Heal) {
+                itemHeals[s] = true;
+                itemUnits[s] = unitsOf(((ItemEffect.Heal) effect).amount());
+            } else if (effect instanceof ItemEffect.DamageAll) {
+                itemUnits[s] = unitsOf(((ItemEffect.DamageAll) effect).amount());
+            } else {
+                throw new IllegalArgumentException("Can't model the effect of " + type.getName());
+            }
+            topCount = Math.max(topCount, stacks.get(s).getCount());
+        }
+
+        // One random key per thing a layer can be made of
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        monsterKeys = new long[monsterCount][topLevel + 1];
+        for (long[] row : monsterKeys) {
+            for (int l = 0; l < row.length; l++) row[l] = random.nextLong();
+        }
+        itemKeys = new long[itemTypes.length][topCount + 1];
+        for (long[] row : itemKeys) {
+            for (int c = 0; c < row.length; c++) row[c] = random.nextLong();
+        }
+    }
+
+    // ==================== ANSWERS ====================
+
+    /**
+     * Get the chance to win from a state, with the best play from here on
+     * @param engine The same battle, now or later (player to move)
+     * @return The win probability, 0 to 1
+     */
+    public double winProbability(BattleEngine engine) {
+        if (engine.playerWon()) return 1;
+        if (engine.isOver()) return 0;
+        double[] values = actionValues(engine);
+        double best = 0;
+        for (double value : values) {
+            if (value > best) best = value;  // skips NaN (no item)
+        }
+        return best;
+    }
+
+    /**
+     * Get the chance to win after each action, with the best play afterwards
+     * @param engine The same battle, now or later (player to move, not over)
+     * @return Win probability per action (0 = Attack ... 3 = Use Item, NaN if no item)
+     */
+    public double[] actionValues(BattleEngine engine) {
+        int[] level = levelsOf(engine);
+        int[] items = countsOf(engine);
+        int p = Math.min(maxLevel, levelOf(engine.getPlayerHealth()));
+        long key = keyOf(level, items);
+
+        int self = layer(level, items, key);
+        Exits exits = new Exits();
+        exits.attackStay = attackValues(level, items, key, countLiving(level), exits.attack);
+        exits.hasItem = itemValues(level, items, key, exits.item);
+        double[] w = Arrays.copyOfRange(arena, self, self + maxLevel + 1);
+
+        double[] values = new double[ACTIONS];
+        for (int a = 0; a < ACTIONS; a++) {
+            values[a] = actionValue(a, p, exits, w);
+        }
+        if (!exits.hasItem) values[3] = Double.NaN;
+        return values;
+    }
+
+    @Override
+    public int chooseAction(BattleEngine engine) {
+        if (engine.isOver()) return -1;
+        double[] values = actionValues(engine);
+        int best = 0;
+        for (int a = 1; a < ACTIONS; a++) {
+            if (values[a] > values[best]) best = a;  // NaN never wins
+        }
+        return best;
+    }
+
+    /**
+     * Get how many layers have been solved
+     * @return Layers in the transposition table
+     */
+    public int getLayerCount() {
+        return layers;
+    }
+
+    /**
+     * Get how many states have been solved
+     * @return Layers times player HP levels
+     */
+    public long getStateCount() {
+        return (long) layers * maxLevel;
+    }
+
+    // ==================== SOLVING ====================
+
+    /**
+     * Find a layer in the table, solving it first if needed
+     * @return Offset of the layer's W values in the arena
+     */
+    private int layer(int[] level, int[] items, long key) {
+        int found = find(key);
+        if (found >= 0) return found;
+        int offset = solve(level, items, key);
+        insert(key, offset);
+        return offset;
+    }
+
+    /**
+     * Solve one layer: policy iteration over the player's HP level
+     *
+     * Each round solves the layer exactly for the current choice of action
+     * per HP level (a small linear system), then switches any level to a
+     * strictly better action. A choice that can loop forever (e.g. always
+     * Defend against monsters that can't hurt) makes the system singular;
+     * then plain value iteration finishes the job from where it got to.
+     */
+    private int solve(int[] level, int[] items, long key) {
+        int living = countLiving(level);
+
+        // Everything that leaves the layer is already solved (and fixed)
+        Exits exits = new Exits();
+        exits.attackStay = attackValues(level, items, key, living, exits.attack);
+        exits.hasItem = itemValues(level, items, key, exits.item);
+
+        // The loops inside the layer: V (player to move) <-> W (monsters to move)
+        double[][] hits = monsterMatrix(level, living);
+        double[] v = new double[maxLevel + 1];
+        double[] w = new double[maxLevel + 1];
+        int[] policy = new int[maxLevel + 1];
+        for (int p = 1; p <= maxLevel; p++) {
+            policy[p] = exits.hasItem && exits.item[p] > exits.attack[p] ? 3 : 0;
+        }
+
+        boolean solved = false;
+        for (int round = 0; round < MAX_POLICY_ROUNDS; round++) {
+            if (!evaluate(policy, exits, hits, v)) break;
+            times(hits, v, w);
+            boolean changed = false;
+            for (int p = 1; p <= maxLevel; p++) {
+                double current = actionValue(policy[p], p, exits, w);
+                for (int a = 0; a < ACTIONS; a++) {
+                    double value = actionValue(a, p, exits, w);
+                    if (value > current + EPSILON) {
+                        current = value;
+                        policy[p] = a;
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                solved = true;
+                break;
+            }
+        }
+
+        if (!solved) {
+            for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+                times(hits, v, w);
+                double change = 0;
+                for (int p = 1; p <= maxLevel; p++) {
+                    double best = 0;
+                    for (int a = 0; a < ACTIONS; a++) {
+                        best = Math.max(best, actionValue(a, p, exits, w));
+                    }
+                    change = Math.max(change, Math.abs(best - v[p]));
+                    v[p] = best;
+                }
+                if (change < EPSILON) break;
+            }
+        }
+        times(hits, v, w);
+
+        int offset = allocate();
+        System.arraycopy(w, 0, arena, offset, maxLevel + 1);
+        return offset;
+    }
+
+    /**
+     * Exits - The values of a layer's actions that lead out of it
+     */
+    private final class Exits {
+        final double[] attack = new double[maxLevel + 1];  // plus attackStay * W[p]
+        final double[] item = new double[maxLevel + 1];
+        double attackStay;
+        boolean hasItem;
+    }
+
+    /**
+     * Win chance of an action at HP level p, given the layer's W
+     */
+    private double actionValue(int action, int p, Exits exits, double[] w) {
+        switch (action) {
+            case 0: return exits.attack[p] + exits.attackStay * w[p];
+            case 1: return w[p];
+            case 2: {
+                double sum = 0;
+                for (int h = 0; h < healUnits.length; h++) {
+                    sum += healChance[h] * w[Math.min(maxLevel, p + healUnits[h])];
+                }
+                return sum;
+            }
+            default: return exits.hasItem ? exits.item[p] : -1;
+        }
+    }
+
+    /**
+     * Solve V exactly for a fixed action per HP level
+     * @return false if the system is singular (the choice can loop forever)
+     */
+    private boolean evaluate(int[] policy, Exits exits, double[][] hits, double[] v) {
+        int n = maxLevel;
+        double[][] system = new double[n][n + 1];  // row p-1: V[p] - sum(coef * W) = constant
+        for (int p = 1; p <= n; p++) {
+            double[] row = system[p - 1];
+            row[p - 1] += 1;
+            switch (policy[p]) {
+                case 0:
+                    row[n] = exits.attack[p];
+                    subtractHits(row, exits.attackStay, hits[p]);
+                    break;
+                case 1:
+                    subtractHits(row, 1, hits[p]);
+                    break;
+                case 2:
+                    for (int h = 0; h < healUnits.length; h++) {
+                        subtractHits(row, healChance[h], hits[Math.min(maxLevel, p + healUnits[h])]);
+                    }
+                    break;
+                default:
+                    row[n] = exits.item[p];
+            }
+        }
+
+        // Gaussian elimination with partial pivoting
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < n; r++) {
+                if (Math.abs(system[r][col]) > Math.abs(system[pivot][col])) pivot = r;
+            }
+            if (Math.abs(system[pivot][col]) < SINGULAR) return false;
+            double[] swap = system[col];
+            system[col] = system[pivot];
+            system[pivot] = swap;
+            double[] top = system[col];
+            for (int r = col + 1; r < n; r++) {
+                double factor = system[r][col] / top[col];
+                if (factor == 0) continue;
+                double[] row = system[r];
+                for (int c = col; c <= n; c++) row[c] -= factor * top[c];
+            }
+        }
+        for (int r = n - 1; r >= 0; r--) {
+            double sum = system[r][n];
+            for (int c = r + 1; c < n; c++) sum -= system[r][c] * v[c + 1];
+            v[r + 1] = sum / system[r][r];
+        }
+        return true;
+    }
+
+    private static void subtractHits(double[] row, double weight, double[] hitRow) {
+        if (weight == 0) return;
+        for (int j = 1; j < hitRow.length; j++) {
+            row[j - 1] -= weight * hitRow[j];
+        }
+    }
+
+    /**
+     * hits[p][q] = chance a random living monster's attack takes HP level p to q
+     */
+    private double[][] monsterMatrix(int[] level, int living) {
+        double pick = 1.0 / living;
+        double[][] hits = new double[maxLevel + 1][maxLevel + 1];
+        for (int i = 0; i < monsterCount; i++) {
+            if (level[i] == 0) continue;
+            int[] units = hitUnits[i];
+            double[] chance = hitChance[i];
+            for (int p = 1; p <= maxLevel; p++) {
+                for (int k = 0; k < units.length; k++) {
+                    int left = p - units[k];
+                    if (left > 0) hits[p][left] += chance[k] * pick;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * W = hits * V
+     */
+    private void times(double[][] hits, double[] v, double[] w) {
+        for (int p = 1; p <= maxLevel; p++) {
+            double sum = 0;
+            double[] row = hits[p];
+            for (int q = 1; q <= maxLevel; q++) sum += row[q] * v[q];
+            w[p] = sum;
+        }
+    }
+
+    /**
+     * Attack: fill in the part of its value that leaves the layer
+     * @return The chance the attack changes nothing (the rest of its value is that times W[p])
+     */
+    private double attackValues(int[] level, int[] items, long key, int living, double[] out) {
+        double pick = 1.0 / living;
+        double stay = 0;
+        for (int i = 0; i < monsterCount; i++) {
+            int before = level[i];
+            if (before == 0) continue;
+            for (int d = 0; d < attackUnits.length; d++) {
+                double chance = attackChance[d] * pick;
+                int after = Math.max(0, before - attackUnits[d]);
+                if (after == before) {
+                    stay += chance;
+                } else if (after == 0 && living == 1) {
+                    addConstant(out, chance);  // last monster down: a win
+                } else {
+                    level[i] = after;
+                    int child = layer(level, items, key ^ monsterKeys[i][before] ^ monsterKeys[i][after]);
+                    level[i] = before;
+                    for (int p = 1; p <= maxLevel; p++) out[p] += chance * arena[child + p];
+                }
+            }
+        }
+        return stay;
+    }
+
+    /**
+     * Use Item: fill in its value, or return false if there is no item
+     */
+    private boolean itemValues(int[] level, int[] items, long key, double[] out) {
+        int s = 0;
+        while (s < items.length && items[s] == 0) s++;
+        if (s == items.length) return false;
+
+        items[s]--;
+        long itemKey = key ^ itemKeys[s][items[s] + 1] ^ itemKeys[s][items[s]];
+        if (itemHeals[s]) {
+            int child = layer(level, items, itemKey);
+            for (int p = 1; p <= maxLevel; p++) {
+                out[p] = arena[child + Math.min(maxLevel, p + itemUnits[s])];
+            }
+        } else {
+            int[] hit = level.clone();
+            long hitKey = itemKey;
+            for (int i = 0; i < monsterCount; i++) {
+                if (hit[i] == 0) continue;
+                int after = Math.max(0, hit[i] - itemUnits[s]);
+                hitKey ^= monsterKeys[i][hit[i]] ^ monsterKeys[i][after];
+                hit[i] = after;
+            }
+            if (countLiving(hit) == 0) {
+                addConstant(out, 1);
+            } else {
+                int child = layer(hit, items, hitKey);
+                System.arraycopy(arena, child, out, 0, maxLevel + 1);
+                out[0] = 0;
+            }
+        }
+        items[s]++;
+        return true;
+    }
+
+    private void addConstant(double[] out, double value) {
+        for (int p = 1; p <= maxLevel; p++) out[p] += value;
+    }
+
+    // ==================== STATE ====================
+
+    private int levelOf(int hp) {
+        return hp <= 0 ? 0 : (hp + quantum - 1) / quantum;
+    }
+
+    private int unitsOf(int amount) {
+        return (int) Math.round((double) amount / quantum);
+    }
+
+    private int[] levelsOf(BattleEngine engine) {
+        MonsterPool pool = engine.getMonsterPool();
+        if (pool.size() != monsterCount) {
+            throw new IllegalArgumentException("Not the battle this solver was made for");
+        }
+        int[] level = new int[monsterCount];
+        for (int i = 0; i < monsterCount; i++) {
+            level[i] = Math.min(startLevel[i], levelOf(pool.health(i)));
+        }
+        return level;
+    }
+
+    private int[] countsOf(BattleEngine engine) {
+        Inventory inventory = engine.getInventory();
+        int[] items = new int[itemTypes.length];
+        for (int s = 0; s < itemTypes.length; s++) {
+            items[s] = Math.min(itemKeys[s].length - 1, inventory.count(itemTypes[s]));
+        }
+        return items;
+    }
+
+    private long keyOf(int[] level, int[] items) {
+        long key = 0;
+        for (int i = 0; i < level.length; i++) key ^= monsterKeys[i][level[i]];
+        for (int s = 0; s < items.length; s++) key ^= itemKeys[s][items[s]];
+        return key;
+    }
+
+    private static int countLiving(int[] level) {
+        int living = 0;
+        for (int l : level) {
+            if (l > 0) living++;
+        }
+        return living;
+    }
+
+    // ==================== TRANSPOSITION TABLE ====================
+
+    private int find(long key) {
+        if (key == EMPTY) key = 1;
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return offsets[slot];
+        }
+        return -1;
+    }
+
+    private void insert(long key, int offset) {
+        if (key == EMPTY) key = 1;
+        if (2 * (layers + 1) > keys.length) rehash();
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+        keys[slot] = key;
+        offsets[slot] = offset;
+        layers++;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldOffsets = offsets;
+        keys = new long[oldKeys.length * 2];
+        offsets = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            offsets[slot] = oldOffsets[i];
+        }
+    }
+
+    private static int mix(long key) {
+        return (int) (key ^ (key >>> 32));
+    }
+
+    private int allocate() {
+        if (arenaSize + maxLevel + 1 > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + maxLevel + 1));
+        }
+        int offset = arenaSize;
+        arenaSize += maxLevel + 1;
+        return offset;
+    }
+
+    // ==================== DICE ====================
+
+    /**
+     * Roll - The exact distribution of base + (int)(random.nextDouble() * spread)
+     */
+    private static final class Roll {
+        final int[] units;
+        final double[] chance;
+
+        private Roll(int[] units, double[] chance) {
+            this.units = units;
+            this.chance = chance;
+        }
+
+        /**
+         * (int)(u * spread) is k when u * spread lands in [k, k + 1)
+         */
+        static Roll truncated(int base, double spread) {
+            if (spread <= 0) {
+                return new Roll(new int[] {base}, new double[] {1});
+            }
+            int outcomes = (int) Math.ceil(spread);
+            int[] units = new int[outcomes];
+            double[] chance = new double[outcomes];
+            for (int k = 0; k < outcomes; k++) {
+                units[k] = base + k;
+                chance[k] = (Math.min(k + 1, spread) - k) / spread;
+            }
+            return new Roll(units, chance);
+        }
+
+        /**
+         * The same roll counted in levels of quantum HP (equal levels merged)
+         */
+        Roll inLevels(int quantum) {
+            int top = (int) Math.round((double) units[units.length - 1] / quantum);
+            int bottom = (int) Math.round((double) units[0] / quantum);
+            double[] merged = new double[top - bottom + 1];
+            for (int k = 0; k < units.length; k++) {
+                merged[(int) Math.round((double) units[k] / quantum) - bottom] += chance[k];
+            }
+            int count = 0;
+            for (double c : merged) {
+                if (c > 0) count++;
+            }
+            int[] levelUnits = new int[count];
+            double[] levelChance = new double[count];
+            int j = 0;
+            for (int k = 0; k < merged.length; k++) {
+                if (merged[k] > 0) {
+                    levelUnits[j] = bottom + k;
+                    levelChance[j] = merged[k];
+                    j++;
+                }
+            }
+            return new Roll(levelUnits, levelChance);
+        }
+    }
+
+    // ==================== DEMO ====================
+
+    public static void main(String[] args) {
+        int battles = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int quantum = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        SplittableRandom seeds = new SplittableRandom(42);
+        long start = System.nanoTime();
+        long states = 0;
+        double[][] table = new double[BattleEngine.BUILD_NAMES.length][BalanceAnalyzer.DIFFICULTY_MONSTERS.length];
+        for (int b = 0; b < table.length; b++) {
+            for (int d = 0; d < table[b].length; d++) {
+                double sum = 0;
+                for (int i = 0; i < battles; i++) {
+                    BattleEngine engine = new BattleEngine(new HeadlessBattleView(() -> 0), seeds.split());
+                    engine.chooseBuild(b);
+                    engine.spawnMonsters(BalanceAnalyzer.DIFFICULTY_MONSTERS[d]);
+                    engine.addHealthPotion(30);
+                    engine.addHealthPotion(30);
+                    engine.addBomb(20);
+                    ExpectimaxSolver solver = new ExpectimaxSolver(engine, quantum);
+                    sum += solver.winProbability(engine);
+                    states += solver.getStateCount();
+                }
+                table[b][d] = 100 * sum / battles;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("BEST POSSIBLE WIN RATE (%), " + battles + " spawns per cell, quantum " + quantum);
+        System.out.printf("%-10s", "");
+        for (String name : BalanceAnalyzer.DIFFICULTY_NAMES) {
+            System.out.printf("%10s", name);
+        }
+        System.out.println();
+        for (int b = 0; b < table.length; b++) {
+            System.out.printf("%-10s", BattleEngine.BUILD_NAMES[b]);
+            for (int d = 0; d < table[b].length; d++) {
+                System.out.printf("%10.1f", table[b][d]);
+            }
+            System.out.println();
+        }
+        System.out.printf("%n%,d states solved in %.2f s%n", states, seconds);
+    }
+}
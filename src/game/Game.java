@@ -1,6 +1,7 @@
 package game;
 import java.util.ArrayList;
 
+import gui.BattleView;
 import gui.MonsterBattleGUI;
 
 /**
@@ -19,11 +20,13 @@ import gui.MonsterBattleGUI;
 public class Game {
     
     // The GUI (I had AI build most of this)
-    private MonsterBattleGUI gui;
+    // It's a BattleView, so you could swap in a HeadlessBattleView for testing
+    private BattleView gui;
     
     // Game state - YOU manage these
     private ArrayList<Monster> monsters;
-    private ArrayList<Item> inventory;
+    private AliveSet living;  // which monsters are still alive
+    private Inventory inventory;  // items stacked by type
     private int playerHealth;
     private int maxHealth;
     
@@ -62,11 +65,15 @@ public class Game {
         monsters = new ArrayList<>();
         monsters.add(new Monster());  // Add more monsters here!
         monsters.add(new Monster());
+        living = AliveSet.of(monsters);  // call again if you add monsters later
         gui.updateMonsters(monsters);
         
         // TODO: Create starting items
-        inventory = new ArrayList<>();
-        // Add items here! Look at GameDemo.java for examples
+        inventory = new Inventory();
+        // Add items here! For example:
+        //   ItemType potion = new ItemType("Health Potion", "🧪", () -> { ... });
+        //   inventory.add(potion, 3);
+        // Look at BattleEngine.addHealthPotion() for a complete one
         gui.updateInventory(inventory);
         
         // TODO: Customize button labels
@@ -183,10 +190,11 @@ public class Game {
             return;
         }
         
-        // Use first item
-        Item item = inventory.remove(0);
+        // Use the first kind of item you added (no list shifting needed)
+        ItemType type = inventory.peekNext();
+        inventory.take(type);
         gui.updateInventory(inventory);
-        item.use();  // The item knows what to do!
+        type.runCallback();  // The item knows what to do!
     }
     
     /**
@@ -211,23 +219,16 @@ public class Game {
      * Count how many monsters are still alive
      */
     private int countLivingMonsters() {
-        int count = 0;
-        for (Monster m : monsters) {
-            if (m.health() > 0) count++;
-        }
-        return count;
+        return living.size();
     }
     
     /**
      * Get a random living monster
      */
     private Monster getRandomLivingMonster() {
-        ArrayList<Monster> alive = new ArrayList<>();
-        for (Monster m : monsters) {
-            if (m.health() > 0) alive.add(m);
-        }
-        if (alive.isEmpty()) return null;
-        return alive.get((int)(Math.random() * alive.size()));
+        int index = living.randomIndex();
+        if (index < 0) return null;
+        return monsters.get(index);
     }
     
     // TODO: Add more helper methods as you need them!
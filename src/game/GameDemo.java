@@ -1,5 +1,5 @@
 package game;
-import java.util.ArrayList;
+import java.time.Duration;
 
 import gui.MonsterBattleGUI;
 
@@ -15,29 +15,46 @@ import gui.MonsterBattleGUI;
  * 3. Game loop: get action → do action → check win/loss
  * 
  * NEW: Shows how to use the 4 buttons for difficulty selection AND character selection before game starts!
+ * 
+ * The rules themselves live in BattleEngine, so the same battle can also
+ * run without a window (see HeadlessBattleView).
+ * 
+ * Run with --auto to watch MctsPlayer fight the battle for you (always with
+ * alternating turns, the game its win rate was measured on).
+ * Run with --speed to let faster fighters act more often (runBySpeed()).
+ * BalanceAnalyzer, MctsPlayer and ExpectimaxSolver all assume the
+ * default alternating turns, so --speed plays a different game (and
+ * can't be combined with --auto).
  */
 public class GameDemo {
     
     // The GUI (use this to display everything)
     private MonsterBattleGUI gui;
     
-    // Game state
-    private ArrayList<Monster> monsters;
-    private ArrayList<Item> inventory;
-    private int playerHealth;
-    private int maxHealth;
+    // The battle rules and game state
+    private BattleEngine engine;
+    
+    // Plays instead of the buttons (null = you play)
+    private PlayerPolicy autoPlayer;
     
-    // Player stats (customized by character choice)
-    private int playerDamage;
-    private int playerShield;
-    private int playerHeal;
-    private int playerSpeed;
+    // Faster fighters act more often instead of taking turns
+    private boolean bySpeed;
     
     /**
      * Main method - start the game!
      */
     public static void main(String[] args) {
         GameDemo game = new GameDemo();
+        for (String arg : args) {
+            if (arg.equals("--auto")) {
+                game.autoPlayer = new MctsPlayer(Duration.ofMillis(200));
+            } else if (arg.equals("--speed")) {
+                game.bySpeed = true;
+            }
+        }
+        if (game.autoPlayer != null && game.bySpeed) {
+            throw new IllegalArgumentException("Can't combine --auto and --speed: MctsPlayer plays alternating turns");
+        }
         game.play();
     }
     
@@ -53,8 +70,9 @@ public class GameDemo {
      * Setup - create the GUI and game state
      */
     private void setupGame() {
-        // Create the GUI
+        // Create the GUI and the engine that draws on it
         gui = new MonsterBattleGUI("Monster Battle - DEMO");
+        engine = new BattleEngine(gui);
         
         // CHOOSE DIFFICULTY (number of monsters to face)
         int numMonsters = chooseDifficulty();
@@ -62,32 +80,19 @@ public class GameDemo {
         // PICK YOUR CHARACTER BUILD (using the 4 action buttons!)
         pickCharacterBuild();
         
-        // Setup player health (based on character choice)
-        maxHealth = 100;
-        playerHealth = maxHealth;
-        gui.setPlayerMaxHealth(maxHealth);
-        gui.updatePlayerHealth(playerHealth);
-        
         // Create monsters based on chosen difficulty
-        monsters = new ArrayList<>();
-        for (int i = 0; i < numMonsters; i++) {
-            monsters.add(new Monster());
-        }
-        gui.updateMonsters(monsters);
+        engine.spawnMonsters(numMonsters);
         
         // Create items
-        inventory = new ArrayList<>();
-        addHealthPotion(30);
-        addHealthPotion(30);
-        addBomb(20);
-        gui.updateInventory(inventory);
+        engine.addHealthPotion(30);
+        engine.addHealthPotion(30);
+        engine.addBomb(20);
         
-        // Setup buttons for gameplay (now that character is chosen)
-        String[] buttons = {"Attack", "Defend", "Heal", "Use Item"};
-        gui.setActionButtons(buttons);
+        // Show everything and setup buttons for gameplay (now that character is chosen)
+        engine.start();
         
         // Welcome message
-        gui.displayMessage("Battle Start! You are a " + getCharacterName() + " facing " + numMonsters + " monsters!");
+        gui.displayMessage("Battle Start! You are a " + engine.getCharacterName() + " facing " + numMonsters + " monsters!");
     }
     
     /**
@@ -120,8 +125,7 @@ public class GameDemo {
      */
     private void pickCharacterBuild() {
         // Set button labels to character classes
-        String[] characterClasses = {"Fighter", "Tank", "Healer", "Ninja"};
-        gui.setActionButtons(characterClasses);
+        gui.setActionButtons(BattleEngine.BUILD_NAMES);
         
         // Display choice prompt
         gui.displayMessage("---- PICK YOUR BUILD ----");
@@ -129,206 +133,24 @@ public class GameDemo {
         // Wait for player to click a button (0-3)
         int choice = gui.waitForAction();
         
-        // Initialize default stats
-        playerDamage = 200;
-        playerShield = 50;
-        playerHeal = 50;
-        playerSpeed = 10;
-        
-        // Customize stats based on character choice
-        if (choice == 0) {
-            // Fighter: high damage, low healing and shield
-            gui.displayMessage("You chose Fighter! High damage, but weak defense.");
-            playerShield -= (int)(Math.random() * 45 + 1) + 5;  // Reduce shield by 6-50
-            playerHeal -= (int)(Math.random() * 46) + 5;        // Reduce heal by 5-50
-        } else if (choice == 1) {
-            // Tank: high shield, low damage and speed
-            gui.displayMessage("You chose Tank! Tough defense, but slow attacks.");
-            playerSpeed -= (int)(Math.random() * 9) + 1;        // Reduce speed by 1-9
-            playerDamage -= (int)(Math.random() * 100) + 100;   // Reduce damage by 100-199
-        } else if (choice == 2) {
-            // Healer: high healing, low damage and shield
-            gui.displayMessage("You chose Healer! Great recovery, but fragile.");
-            playerDamage -= (int)(Math.random() * 26) + 5;      // Reduce damage by 5-30
-            playerShield -= (int)(Math.random() * 46) + 5;      // Reduce shield by 5-50
-        } else {
-            // Ninja: high speed, low healing and health
-            gui.displayMessage("You chose Ninja! Fast and deadly, but risky.");
-            playerHeal -= (int)(Math.random() * 46) + 5;        // Reduce heal by 5-50
-            maxHealth -= (int)(Math.random() * 21) + 5;         // Reduce max health by 5-25
-        }
+        // The engine knows what each build does to your stats
+        engine.chooseBuild(choice);
         
         // Pause to let player see their choice
         gui.pause(1500);
     }
     
     /**
-     * Get the character name based on stats (for messages)
-     */
-    private String getCharacterName() {
-        if (playerDamage > 150 && playerShield < 30) return "Fighter";
-        if (playerShield > 40 && playerDamage < 150) return "Tank";
-        if (playerHeal > 40 && playerDamage < 180) return "Healer";
-        return "Ninja";
-    }
-    
-    /**
-     * Main game loop
+     * Main game loop - you and one monster take turns (or by speed with --speed)
      */
     private void gameLoop() {
-        // Keep playing while monsters alive and player alive
-        while (countLivingMonsters() > 0 && playerHealth > 0) {
-            
-            // PLAYER'S TURN
-            gui.displayMessage("Your turn! HP: " + playerHealth + " | DMG: " + playerDamage);
-            int action = gui.waitForAction();  // Wait for button click
-            handlePlayerAction(action);
-            gui.updateMonsters(monsters);
-            gui.pause(500);
-            
-            // MONSTER'S TURN (if any alive)
-            if (countLivingMonsters() > 0 && playerHealth > 0) {
-                monsterAttack();
-                gui.updateMonsters(monsters);
-                gui.pause(500);
-            }
-        }
-        
-        // Game over!
-        if (playerHealth <= 0) {
-            gui.displayMessage("💀 DEFEAT! You have been defeated...");
+        if (autoPlayer != null) {
+            // MctsPlayer's copies play alternating turns, so it plays run() too
+            engine.run(autoPlayer);
+        } else if (bySpeed) {
+            engine.runBySpeed();
         } else {
-            gui.displayMessage("🎉 VICTORY! You defeated all monsters!");
+            engine.run();
         }
     }
-    
-    /**
-     * Handle player's action choice
-     */
-    private void handlePlayerAction(int action) {
-        switch (action) {
-            case 0: attackMonster(); break;
-            case 1: defend(); break;
-            case 2: heal(); break;
-            case 3: useItem(); break;
-        }
-    }
-    
-    /**
-     * Attack a random monster (uses playerDamage stat)
-     */
-    private void attackMonster() {
-        Monster target = getRandomLivingMonster();
-        if (target != null) {
-            // Calculate damage based on player's damage stat
-            int baseDamage = (int)(playerDamage * 0.15);  // 15% of damage stat
-            int damage = baseDamage + (int)(Math.random() * baseDamage);  // ±50% variance
-            target.takeDamage(damage);
-            gui.displayMessage("💥 You hit for " + damage + " damage!");
-            
-            // Show which one we hit
-            int index = monsters.indexOf(target);
-            gui.highlightMonster(index);
-            gui.pause(300);
-            gui.highlightMonster(-1);
-        }
-    }
-    
-    /**
-     * Defend (uses playerShield stat to reduce damage)
-     */
-    private void defend() {
-        gui.displayMessage("🛡️ You brace for impact! (Shield: " + playerShield + ")");
-        // Note: In a real game, you'd track this state and reduce incoming damage
-        // This is just demonstrating the character stats
-    }
-    
-    /**
-     * Heal yourself (uses playerHeal stat)
-     */
-    private void heal() {
-        int healAmount = (int)(playerHeal * 0.5) + (int)(Math.random() * playerHeal * 0.5);
-        playerHealth = Math.min(maxHealth, playerHealth + healAmount);
-        gui.updatePlayerHealth(playerHealth);
-        gui.displayMessage("💚 You healed for " + healAmount + " HP!");
-    }
-    
-    /**
-     * Use an item from inventory
-     */
-    private void useItem() {
-        if (inventory.isEmpty()) {
-            gui.displayMessage("No items in inventory!");
-            return;
-        }
-        
-        // Use first item
-        Item item = inventory.remove(0);
-        gui.updateInventory(inventory);
-        item.use();  // The item knows what to do!
-    }
-    
-    /**
-     * Monster attacks player
-     */
-    private void monsterAttack() {
-        Monster attacker = getRandomLivingMonster();
-        if (attacker != null) {
-            int damage = (int)(Math.random() * attacker.damage());
-            playerHealth -= damage;
-            gui.updatePlayerHealth(playerHealth);
-            gui.displayMessage("👹 Monster attacks! You take " + damage + " damage!");
-        }
-    }
-    
-    /**
-     * Count how many monsters are still alive
-     */
-    private int countLivingMonsters() {
-        int count = 0;
-        for (Monster m : monsters) {
-            if (m.health() > 0) count++;
-        }
-        return count;
-    }
-    
-    /**
-     * Get a random living monster
-     */
-    private Monster getRandomLivingMonster() {
-        ArrayList<Monster> alive = new ArrayList<>();
-        for (Monster m : monsters) {
-            if (m.health() > 0) alive.add(m);
-        }
-        if (alive.isEmpty()) return null;
-        return alive.get((int)(Math.random() * alive.size()));
-    }
-    
-    // ==================== ITEM CREATION HELPERS ====================
-    
-    /**
-     * Add a health potion to inventory
-     */
-    private void addHealthPotion(int healAmount) {
-        inventory.add(new Item("Health Potion", "🧪", () -> {
-            playerHealth = Math.min(maxHealth, playerHealth + healAmount);
-            gui.updatePlayerHealth(playerHealth);
-            gui.displayMessage("💚 Used Health Potion! Healed " + healAmount + " HP!");
-        }));
-    }
-    
-    /**
-     * Add a bomb to inventory (damages all monsters)
-     */
-    private void addBomb(int damage) {
-        inventory.add(new Item("Bomb", "💣", () -> {
-            for (Monster m : monsters) {
-                if (m.health() > 0) {
-                    m.takeDamage(damage);
-                }
-            }
-            gui.displayMessage("💣 BOOM! All monsters take " + damage + " damage!");
-            gui.updateMonsters(monsters);
-        }));
-    }
-}
\ No newline at end of file
+}
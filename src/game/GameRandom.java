@@ -0,0 +1,37 @@
+package game;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * GameRandom - Where the game's random numbers come from
+ *
+ * Math.random() shares one generator between every thread and can't be
+ * seeded. The game instead passes a RandomGenerator around:
+ * - current() is the calling thread's own generator, so parallel battles
+ *   never fight over a shared seed
+ * - seeded(seed) gives the same numbers every time, so a battle can be
+ *   replayed exactly from its seed
+ */
+public final class GameRandom {
+
+    private GameRandom() {
+    }
+
+    /**
+     * Get the default generator (per-thread, unseeded)
+     * @return The calling thread's generator
+     */
+    public static RandomGenerator current() {
+        return ThreadLocalRandom.current();
+    }
+
+    /**
+     * Get a reproducible generator
+     * @param seed The seed - the same seed gives the same battle
+     * @return A new generator (use it from one thread only)
+     */
+    public static RandomGenerator seeded(long seed) {
+        return new SplittableRandom(seed);
+    }
+}
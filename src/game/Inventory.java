@@ -0,0 +1,194 @@
+package game;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Inventory - The player's items, stacked by type
+ * 
+ * Every ItemType is stored once with a count, so adding 100 potions costs
+ * a counter and not 100 objects. Items are used in the order their type
+ * was first added (like using item 0 of a list), but without shifting a
+ * list: using an item just lowers a count.
+ * 
+ * Not thread-safe - use it from the game thread and hand getStacks()
+ * snapshots to other threads.
+ */
+public class Inventory implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    // One stack per type, in the order the types were added
+    private final ArrayList<Stack> stacks = new ArrayList<>();
+    private final IdentityHashMap<ItemType, Stack> byType = new IdentityHashMap<>();
+    private int total = 0;
+    
+    /**
+     * Add one item
+     * @param type The kind of item
+     */
+    public void add(ItemType type) {
+        add(type, 1);
+    }
+    
+    /**
+     * Add several items of one type
+     * @param type The kind of item
+     * @param count How many to add
+     */
+    public void add(ItemType type, int count) {
+        if (count <= 0) return;
+        Stack stack = byType.get(type);
+        if (stack == null) {
+            stack = new Stack(type, 0);
+            byType.put(type, stack);
+            stacks.add(stack);
+        }
+        stack.count += count;
+        total += count;
+    }
+    
+    /**
+     * Use one item of a type in a battle
+     * @param type The kind of item to use
+     * @param engine The battle the effect acts on
+     * @return true if there was one to use
+     */
+    public boolean use(ItemType type, BattleEngine engine) {
+        if (!take(type)) return false;
+        type.use(engine);
+        return true;
+    }
+    
+    /**
+     * Use the next item (the oldest type still in the inventory) in a battle
+     * @param engine The battle the effect acts on
+     * @return The type that was used, or null if the inventory is empty
+     */
+    public ItemType useNext(BattleEngine engine) {
+        ItemType type = peekNext();
+        if (type != null) {
+            use(type, engine);
+        }
+        return type;
+    }
+    
+    /**
+     * Use the next item without a battle (for Runnable items only)
+     * @return The type that was used, or null if the inventory is empty
+     * @throws IllegalStateException if its effect is data - use useNext(engine)
+     */
+    public ItemType useNextCallback() {
+        ItemType type = peekNext();
+        if (type != null) {
+            take(type);
+            type.runCallback();
+        }
+        return type;
+    }
+    
+    /**
+     * Remove one item of a type without using it
+     * @param type The kind of item
+     * @return true if there was one to remove
+     */
+    public boolean take(ItemType type) {
+        Stack stack = byType.get(type);
+        if (stack == null) return false;
+        stack.count--;
+        total--;
+        if (stack.count == 0) {
+            // Only as many stacks as there are types, so this stays small
+            byType.remove(type);
+            stacks.remove(stack);
+        }
+        return true;
+    }
+    
+    /**
+     * See which type useNext() would use
+     * @return The type, or null if the inventory is empty
+     */
+    public ItemType peekNext() {
+        return stacks.isEmpty() ? null : stacks.get(0).type;
+    }
+    
+    /**
+     * Count the items of one type
+     * @param type The kind of item
+     * @return How many there are
+     */
+    public int count(ItemType type) {
+        Stack stack = byType.get(type);
+        return stack == null ? 0 : stack.count;
+    }
+    
+    /**
+     * Count all items
+     * @return How many items there are
+     */
+    public int size() {
+        return total;
+    }
+    
+    public boolean isEmpty() {
+        return total == 0;
+    }
+    
+    /**
+     * Make an independent copy (the item types are shared, the counts aren't)
+     * @return The copy
+     */
+    public Inventory copy() {
+        Inventory copy = new Inventory();
+        for (Stack stack : stacks) {
+            copy.add(stack.type, stack.count);
+        }
+        return copy;
+    }
+    
+    /**
+     * Get a copy of the stacks, in use order (safe to give to the GUI)
+     * @return One Stack per type
+     */
+    public ArrayList<Stack> getStacks() {
+        ArrayList<Stack> copy = new ArrayList<>(stacks.size());
+        for (Stack stack : stacks) {
+            copy.add(new Stack(stack.type, stack.count));
+        }
+        return copy;
+    }
+    
+    /**
+     * Get one Item per unit (for code that still uses ArrayList<Item>)
+     * @return The items, in use order
+     */
+    public ArrayList<Item> toItems() {
+        ArrayList<Item> items = new ArrayList<>(total);
+        for (Stack stack : stacks) {
+            Item item = stack.type.toItem();
+            for (int i = 0; i < stack.count; i++) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+    
+    /**
+     * Stack - An item type and how many of it there are
+     */
+    public static final class Stack implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final ItemType type;
+        private int count;
+        
+        Stack(ItemType type, int count) {
+            this.type = type;
+            this.count = count;
+        }
+        
+        public ItemType getType() { return type; }
+        public int getCount() { return count; }
+    }
+}
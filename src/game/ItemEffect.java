@@ -0,0 +1,65 @@
+package game;
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ItemEffect - What an item does, written down as data
+ * 
+ * A Runnable can only be run. An ItemEffect can also be saved, sent over
+ * the network, looked at ("how much damage does this do?"), combined with
+ * other effects and applied to any BattleEngine, including a headless one.
+ * EffectInterpreter is what actually applies them.
+ * 
+ * Examples:
+ *   ItemEffect.heal(30)
+ *   ItemEffect.all(ItemEffect.damageAll(10), ItemEffect.buff(ItemEffect.Stat.SHIELD, 5))
+ * 
+ * Callback wraps an old-style Runnable so existing items keep working,
+ * but it can't be saved or looked into: writing one (or an item or
+ * inventory holding one) throws NotSerializableException.
+ */
+public sealed interface ItemEffect extends Serializable {
+    
+    /**
+     * Player stats a Buff can raise (or lower, with a negative amount)
+     */
+    enum Stat { DAMAGE, SHIELD, HEAL, SPEED, MAX_HEALTH }
+    
+    /** Restore the player's HP (up to max health) */
+    record Heal(int amount) implements ItemEffect { }
+    
+    /** Hit every living monster */
+    record DamageAll(int amount) implements ItemEffect { }
+    
+    /** Hit one random living monster */
+    record DamageTarget(int amount) implements ItemEffect { }
+    
+    /** Change one of the player's stats for the rest of the battle */
+    record Buff(Stat stat, int amount) implements ItemEffect { }
+    
+    /** Several effects, applied in order */
+    record Composite(List<ItemEffect> effects) implements ItemEffect {
+        public Composite {
+            effects = List.copyOf(effects);
+        }
+    }
+    
+    /** An old-style Runnable item effect (can't be serialized) */
+    record Callback(Runnable action) implements ItemEffect {
+        private Object writeReplace() throws ObjectStreamException {
+            throw new NotSerializableException("ItemEffect.Callback holds a Runnable - "
+                + "use a data effect (heal, damageAll, ...) for items that are saved");
+        }
+    }
+    
+    // ==================== SHORTCUTS ====================
+    
+    static ItemEffect heal(int amount) { return new Heal(amount); }
+    static ItemEffect damageAll(int amount) { return new DamageAll(amount); }
+    static ItemEffect damageTarget(int amount) { return new DamageTarget(amount); }
+    static ItemEffect buff(Stat stat, int amount) { return new Buff(stat, amount); }
+    static ItemEffect all(ItemEffect... effects) { return new Composite(List.of(effects)); }
+    static ItemEffect of(Runnable action) { return new Callback(action); }
+}
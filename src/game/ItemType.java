@@ -0,0 +1,114 @@
+package game;
+import java.io.Serializable;
+
+/**
+ * ItemType - One kind of item, shared by every item of that kind
+ * 
+ * Ten health potions are one ItemType and a count of 10 in an Inventory,
+ * instead of ten Item objects that each hold the same name, icon and
+ * effect. (This is the "flyweight" pattern.)
+ * 
+ * The effect is an ItemEffect, and use(engine) applies it to any
+ * BattleEngine through EffectInterpreter. Types made from a data effect
+ * (not from a Runnable) can also be saved with Java serialization.
+ */
+public final class ItemType implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String name;
+    private final String icon;
+    private final ItemEffect effect;  // What happens when an item of this type is used
+    
+    /**
+     * Constructor - Create an item type with a usage effect
+     * @param name The item's name
+     * @param icon The emoji/symbol to display (e.g., "🧪", "💣", "⚔️")
+     * @param onUse The code to run when an item of this type is used
+     */
+    public ItemType(String name, String icon, Runnable onUse) {
+        this(name, icon, onUse == null ? null : ItemEffect.of(onUse));
+    }
+    
+    /**
+     * Constructor - Create an item type with a declarative effect
+     * @param name The item's name
+     * @param icon The emoji/symbol to display
+     * @param effect What using the item does (e.g., ItemEffect.heal(30))
+     */
+    public ItemType(String name, String icon, ItemEffect effect) {
+        this.name = name;
+        this.icon = icon;
+        this.effect = effect;
+    }
+    
+    /**
+     * Get the item's name
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get the item's display icon
+     * @return The icon
+     */
+    public String getIcon() {
+        return icon;
+    }
+    
+    /**
+     * Get what using an item of this type does
+     * @return The effect, or null if it does nothing
+     */
+    public ItemEffect getEffect() {
+        return effect;
+    }
+    
+    /**
+     * Use one item of this type in a battle (works for every kind of effect)
+     * @param engine The battle to apply the effect to
+     */
+    public void use(BattleEngine engine) {
+        if (effect == null) return;
+        EffectInterpreter.apply(engine, effect, name);
+    }
+    
+    /**
+     * Run the Runnable of an item made from one, without a battle
+     * (for games like Game.java that keep their own state)
+     * @throws IllegalStateException if the effect is data - use use(engine)
+     */
+    public void runCallback() {
+        if (effect == null) return;
+        if (!(effect instanceof ItemEffect.Callback callback)) {
+            throw new IllegalStateException(name + " needs a battle to act on - call use(engine)");
+        }
+        callback.action().run();
+    }
+    
+    /**
+     * Check if this type has a usage effect defined
+     * @return true if items of this type can be used
+     */
+    public boolean hasEffect() {
+        return effect != null;
+    }
+    
+    /**
+     * Make a single Item of this type (for code that still uses ArrayList<Item>)
+     * 
+     * Only a Runnable effect can run without a battle, so Items made from
+     * data effects have none; use them through the ItemType and use(engine).
+     * @return A new Item with this type's name and icon
+     */
+    public Item toItem() {
+        return new Item(name, icon, effect instanceof ItemEffect.Callback callback ? callback.action() : null);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,355 @@
+package game;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import gui.HeadlessBattleView;
+
+/**
+ * MctsPlayer - An auto-player that thinks by playing the battle out many times
+ *
+ * Each turn it runs Monte Carlo tree search (UCT) from the current battle:
+ * copy the battle, pick actions down a tree of earlier tries, then finish
+ * the battle with random actions and score how it went. Actions that keep
+ * scoring well get tried more, and the action tried most is played.
+ *
+ * The tree is "open loop": a node is a sequence of player actions, not an
+ * exact battle state, because every copy rolls its own dice.
+ *
+ * The search runs on a ForkJoinPool with root parallelism: every worker
+ * builds its own tree with its own generator, sharing nothing, and the
+ * visit counts of the first actions are added up at the end.
+ *
+ * Plug it in wherever a PlayerPolicy goes, e.g. engine.run(new MctsPlayer(...))
+ * instead of waiting for a button in waitForAction().
+ *
+ * The copies play alternating turns like run() and only know the built-in
+ * abilities (see BattleEngine.copy()), so play it with run(): under
+ * runBySpeed() it plans for a different game than the one it is in.
+ *
+ * Usage (compares it with BalanceAnalyzer's scripted player):
+ *   java -Djava.awt.headless=true -cp bin game.MctsPlayer [battles] [millisPerTurn] [monsters]
+ */
+public class MctsPlayer implements PlayerPolicy {
+
+    // 0 = Attack, 1 = Defend, 2 = Heal, 3 = Use Item
+    private static final int ACTIONS = 4;
+
+    // UCT exploration constant (rewards are between 0 and 1)
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    // Random play stops here and the battle is scored as it stands
+    private static final int MAX_ROLLOUT_TURNS = 200;
+
+    // How often a worker looks at the clock
+    private static final int CLOCK_CHECK = 16;
+
+    private final ForkJoinPool pool;
+    private final Duration timeBudget;
+    private final int iterationBudget;
+    private final SplittableRandom seeds;
+
+    // What the last decision cost
+    private long lastRollouts;
+    private long lastNanos;
+    private long totalRollouts;
+    private long totalNanos;
+
+    /**
+     * Constructor - think for a fixed time per turn on every core
+     * @param timeBudget How long to think per turn
+     */
+    public MctsPlayer(Duration timeBudget) {
+        this(ForkJoinPool.commonPool(), timeBudget, 0, System.nanoTime());
+    }
+
+    /**
+     * Constructor - play a fixed number of rollouts per turn on every core
+     * @param iterationBudget Rollouts per turn (for all workers together)
+     */
+    public MctsPlayer(int iterationBudget) {
+        this(ForkJoinPool.commonPool(), null, iterationBudget, System.nanoTime());
+    }
+
+    /**
+     * Constructor
+     * @param pool Where to run the rollouts (one tree per thread of parallelism)
+     * @param timeBudget How long to think per turn (null for no time limit)
+     * @param iterationBudget Rollouts per turn for all workers together (0 for no limit)
+     * @param seed Seed for the rollouts' dice
+     */
+    public MctsPlayer(ForkJoinPool pool, Duration timeBudget, int iterationBudget, long seed) {
+        if (timeBudget == null && iterationBudget <= 0) {
+            throw new IllegalArgumentException("Need a time budget, an iteration budget or both");
+        }
+        this.pool = pool;
+        this.timeBudget = timeBudget;
+        this.iterationBudget = iterationBudget;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int chooseAction(BattleEngine engine) {
+        if (engine.isOver()) return -1;
+
+        int workers = pool.getParallelism();
+        long start = System.nanoTime();
+        long deadline = timeBudget == null ? Long.MAX_VALUE : start + timeBudget.toNanos();
+        int perWorker = iterationBudget <= 0 ? Integer.MAX_VALUE
+            : Math.max(1, (iterationBudget + workers - 1) / workers);
+
+        Search[] searches = new Search[workers];
+        for (int i = 0; i < workers; i++) {
+            searches[i] = new Search(engine, seeds.split(), deadline, perWorker);
+        }
+        long[] visits = new long[ACTIONS];
+        long rollouts = pool.invoke(new SearchAll(searches, visits));
+
+        lastNanos = System.nanoTime() - start;
+        lastRollouts = rollouts;
+        totalNanos += lastNanos;
+        totalRollouts += rollouts;
+
+        // The most tried action is the most trusted one
+        int best = 0;
+        for (int a = 1; a < ACTIONS; a++) {
+            if (visits[a] > visits[best]) best = a;
+        }
+        return best;
+    }
+
+    /**
+     * Get how many rollouts the last decision played
+     * @return Rollouts for the last call to chooseAction()
+     */
+    public long getLastRollouts() {
+        return lastRollouts;
+    }
+
+    /**
+     * Get the speed of the last decision
+     * @return Rollouts per second for the last call to chooseAction()
+     */
+    public double getLastRolloutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastRollouts * 1e9 / lastNanos;
+    }
+
+    /**
+     * Get the average speed over every decision so far
+     * @return Rollouts per second since this player was made
+     */
+    public double getRolloutsPerSecond() {
+        return totalNanos == 0 ? 0 : totalRollouts * 1e9 / totalNanos;
+    }
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Node - One sequence of player actions, with stats for each next action
+     */
+    private static class Node {
+        final int[] visits = new int[ACTIONS];
+        final double[] reward = new double[ACTIONS];
+        final Node[] children = new Node[ACTIONS];
+        int total;
+    }
+
+    /**
+     * Search - One worker's tree
+     */
+    private static class Search {
+        private final BattleEngine root;
+        private final SplittableRandom random;
+        private final HeadlessBattleView silent = new HeadlessBattleView(() -> 0);
+        private final long deadline;
+        private final int iterations;
+        private final Node tree = new Node();
+        private final Node[] path = new Node[MAX_ROLLOUT_TURNS];
+        private final int[] actions = new int[MAX_ROLLOUT_TURNS];
+        private final int startMonsters;
+        private int played;
+
+        Search(BattleEngine root, SplittableRandom random, long deadline, int iterations) {
+            this.root = root;
+            this.random = random;
+            this.deadline = deadline;
+            this.iterations = iterations;
+            this.startMonsters = root.countLivingMonsters();
+        }
+
+        /**
+         * Play rollouts until the budget runs out
+         */
+        void run() {
+            while (played < iterations) {
+                if (played % CLOCK_CHECK == 0 && System.nanoTime() >= deadline && played > 0) break;
+                iterate();
+                played++;
+            }
+        }
+
+        /**
+         * One rollout: walk down the tree, add a node, play out randomly, back up the score
+         */
+        private void iterate() {
+            BattleEngine state = root.copy(silent, random);
+            int depth = 0;
+
+            // Selection and expansion
+            Node node = tree;
+            while (!state.isOver() && depth < MAX_ROLLOUT_TURNS) {
+                int action = select(node, state);
+                path[depth] = node;
+                actions[depth] = action;
+                depth++;
+                play(state, action);
+                if (node.visits[action] == 0) break;  // new node: the tree grows by one
+                if (node.children[action] == null) node.children[action] = new Node();
+                node = node.children[action];
+            }
+
+            // Random playout
+            int turns = depth;
+            while (!state.isOver() && turns < MAX_ROLLOUT_TURNS) {
+                play(state, randomAction(state));
+                turns++;
+            }
+
+            // Backup
+            double score = score(state);
+            for (int i = 0; i < depth; i++) {
+                path[i].visits[actions[i]]++;
+                path[i].reward[actions[i]] += score;
+                path[i].total++;
+            }
+        }
+
+        /**
+         * UCT: untried actions first, then the best average plus an exploration bonus
+         */
+        private int select(Node node, BattleEngine state) {
+            int legal = legalActions(state);
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            double logTotal = Math.log(Math.max(1, node.total));
+            for (int a = 0; a < legal; a++) {
+                int n = node.visits[a];
+                if (n == 0) return a;
+                double value = node.reward[a] / n + EXPLORATION * Math.sqrt(logTotal / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = a;
+                }
+            }
+            return best;
+        }
+
+        private int randomAction(BattleEngine state) {
+            return random.nextInt(legalActions(state));
+        }
+
+        /**
+         * Use Item is only worth trying while there is an item
+         */
+        private static int legalActions(BattleEngine state) {
+            return state.getInventory().isEmpty() ? ACTIONS - 1 : ACTIONS;
+        }
+
+        private static void play(BattleEngine state, int action) {
+            state.playerTurn(action);
+            if (!state.isOver()) {
+                state.monsterTurn();
+            }
+        }
+
+        /**
+         * Score a finished (or cut off) battle between 0 and 1
+         *
+         * A win is worth 0.6 plus up to 0.4 for HP left. Anything else is
+         * worth up to 0.4 for monsters defeated, so hopeless battles still
+         * tell the search something.
+         */
+        private double score(BattleEngine state) {
+            if (state.playerWon()) {
+                return 0.6 + 0.4 * state.getPlayerHealth() / Math.max(1, state.getMaxHealth());
+            }
+            int defeated = startMonsters - state.countLivingMonsters();
+            return 0.4 * Math.max(0, defeated) / Math.max(1, startMonsters);
+        }
+    }
+
+    /**
+     * SearchAll - Runs every worker's search and adds up the root visits
+     */
+    private static class SearchAll extends RecursiveTask<Long> {
+        private final Search[] searches;
+        private final long[] visits;
+
+        SearchAll(Search[] searches, long[] visits) {
+            this.searches = searches;
+            this.visits = visits;
+        }
+
+        @Override
+        protected Long compute() {
+            RecursiveTask<?>[] tasks = new RecursiveTask<?>[searches.length];
+            for (int i = 0; i < searches.length; i++) {
+                Search search = searches[i];
+                tasks[i] = new RecursiveTask<Void>() {
+                    @Override
+                    protected Void compute() {
+                        search.run();
+                        return null;
+                    }
+                };
+            }
+            invokeAll(tasks);
+
+            long rollouts = 0;
+            for (Search search : searches) {
+                rollouts += search.played;
+                for (int a = 0; a < ACTIONS; a++) {
+                    visits[a] += search.tree.visits[a];
+                }
+            }
+            return rollouts;
+        }
+    }
+
+    // ==================== DEMO ====================
+
+    public static void main(String[] args) {
+        int battles = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        int monsters = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        MctsPlayer mcts = new MctsPlayer(Duration.ofMillis(millis));
+        SplittableRandom seeds = new SplittableRandom(42);
+        int mctsWins = 0;
+        int scriptedWins = 0;
+        for (int i = 0; i < battles; i++) {
+            long seed = seeds.nextLong();
+            int build = i % BattleEngine.BUILD_NAMES.length;
+            if (playBattle(mcts, build, monsters, seed)) mctsWins++;
+            if (playBattle(BalanceAnalyzer.SCRIPTED_PLAYER, build, monsters, seed)) scriptedWins++;
+        }
+
+        System.out.printf("%d battles against %d monsters, %d ms per turn on %d threads%n",
+            battles, monsters, millis, mcts.pool.getParallelism());
+        System.out.printf("MCTS wins:     %5.1f%%%n", 100.0 * mctsWins / battles);
+        System.out.printf("Scripted wins: %5.1f%%%n", 100.0 * scriptedWins / battles);
+        System.out.printf("%,.0f rollouts/s%n", mcts.getRolloutsPerSecond());
+    }
+
+    private static boolean playBattle(PlayerPolicy player, int build, int monsters, long seed) {
+        BattleEngine engine = new BattleEngine(new HeadlessBattleView(() -> 0), new SplittableRandom(seed));
+        engine.chooseBuild(build);
+        engine.spawnMonsters(monsters);
+        engine.addHealthPotion(30);
+        engine.addHealthPotion(30);
+        engine.addBomb(20);
+        engine.run(player);
+        return engine.playerWon();
+    }
+}
@@ -1,36 +1,75 @@
 package game;
+import java.util.random.RandomGenerator;
+
 public class Monster {
     // INSTANCE VARIABLES (properties)
     private int health;
     private double damage;
     private int speed;
-    private String special; 
+    private int specialId;  // see AbilityRegistry (0 = none)
+
+    // Living-monster tracking (see AliveSet.of)
+    private AliveSet aliveSet;
+    private int aliveIndex;
 
     // CONSTRUCTOR
     public Monster(){
+        this(GameRandom.current());
+    }
+    // CONSTRUCTOR WITH YOUR OWN RANDOM GENERATOR (e.g. GameRandom.seeded(42))
+    public Monster(RandomGenerator random){
         // randomly generate health, damage, speed
-        health = (int)(Math.random() * 80 + 1) + 20;
+        health = rollHealth(random);
         // random 10 - 50
-        damage = (Math.random() * 41) + 10;
+        damage = rollDamage(random);
         // speed: random 1-10
-        speed = (int)(Math.random() * 10) + 1;
+        speed = rollSpeed(random);
         // by default, the monster doesn't have a special move
-        special = "";
+        specialId = AbilityRegistry.NONE;
     }
     // OVERLOADED CONSTRUCTOR
     public Monster(String special){
         this();
-        this.special = special;
+        this.specialId = AbilityRegistry.idOf(special);
+    }
+    public Monster(String special, RandomGenerator random){
+        this(random);
+        this.specialId = AbilityRegistry.idOf(special);
+    }
+    // CONSTRUCTOR WITH EXACT STATS (no randomness)
+    protected Monster(int health, double damage, int speed, String special){
+        this.health = health;
+        this.damage = damage;
+        this.speed = speed;
+        this.specialId = AbilityRegistry.idOf(special);
     }
     
     // ACCESSOR METHODS
     public int health() { return this.health; }
-    public double damage() { return Math.round(damage * 100.0) / 100.0; }
+    public double damage() { return roundDamage(damage); }
     public int speed() { return speed; }
-    public String special() { return this.special; }
+    public String special() { return AbilityRegistry.nameOf(specialId()); }
+    public int specialId() { return this.specialId; }
 
     // MUTATOR METHODS
     public void takeDamage(int dmg){
+        int before = health;
         health -= dmg;
+        if (aliveSet != null) {
+            if (before > 0 && health <= 0) aliveSet.remove(aliveIndex);
+            else if (before <= 0 && health > 0) aliveSet.add(aliveIndex);
+        }
+    }
+
+    // Called by AliveSet.of so takeDamage can keep the set up to date
+    void track(AliveSet set, int index){
+        this.aliveSet = set;
+        this.aliveIndex = index;
     }
-}
\ No newline at end of file
+
+    // RANDOM STATS (shared with MonsterPool so both roll the same way)
+    static int rollHealth(RandomGenerator random) { return (int)(random.nextDouble() * 80 + 1) + 20; }
+    static double rollDamage(RandomGenerator random) { return (random.nextDouble() * 41) + 10; }
+    static int rollSpeed(RandomGenerator random) { return (int)(random.nextDouble() * 10) + 1; }
+    static double roundDamage(double damage) { return Math.round(damage * 100.0) / 100.0; }
+}
@@ -0,0 +1,510 @@
+package game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * MonsterPool - Many monsters stored as parallel arrays
+ *
+ * An ArrayList<Monster> keeps one object per monster scattered around the
+ * heap. The pool instead keeps each stat in its own primitive array
+ * (health[i], damage[i], speed[i], specialId[i]), so a pass over every
+ * monster is a straight scan through memory and a million monsters cost
+ * a few flat arrays instead of a million objects.
+ *
+ * Special abilities are stored as their AbilityRegistry id.
+ * The living monsters are kept in an AliveSet, so counting them and picking
+ * a random one never scans the arrays.
+ *
+ * get(i) and asList() hand out Monster views that read and write the
+ * arrays, so code written for Monster (like MonsterDisplayPanel) still works.
+ */
+public class MonsterPool {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Below 1 in SPARSE monsters alive, bulk damage visits only the living
+    private static final int SPARSE = 8;
+
+    // One slot per monster
+    private int[] health;
+    private int[] maxHealth;  // health it was added with
+    private double[] damage;
+    private int[] speed;
+    private int[] specialId;
+    private int size;
+
+    // Indices of monsters with health above 0
+    private final AliveSet living;
+
+    // Told when a monster dies or comes back (null = nobody)
+    private LifeListener lifeListener;
+
+    /**
+     * LifeListener - Hears when monsters die or come back to life
+     */
+    public interface LifeListener {
+        void died(int monster);
+        default void revived(int monster) { }
+    }
+
+    // Monster views handed out by asList() so far (created on demand)
+    private final ViewList views = new ViewList();
+
+    /**
+     * Constructor - an empty pool
+     */
+    public MonsterPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor - an empty pool with room for some monsters
+     * @param capacity How many monsters to make room for up front
+     */
+    public MonsterPool(int capacity) {
+        capacity = Math.max(1, capacity);
+        health = new int[capacity];
+        maxHealth = new int[capacity];
+        damage = new double[capacity];
+        speed = new int[capacity];
+        specialId = new int[capacity];
+        living = new AliveSet(capacity);
+    }
+
+    /**
+     * Constructor - a copy of another pool (a few array copies)
+     */
+    private MonsterPool(MonsterPool other) {
+        int capacity = Math.max(1, other.size);
+        health = Arrays.copyOf(other.health, capacity);
+        maxHealth = Arrays.copyOf(other.maxHealth, capacity);
+        damage = Arrays.copyOf(other.damage, capacity);
+        speed = Arrays.copyOf(other.speed, capacity);
+        specialId = Arrays.copyOf(other.specialId, capacity);
+        size = other.size;
+        living = other.living.copy();
+    }
+
+    /**
+     * Make an independent copy of the pool (e.g. to try moves out on)
+     *
+     * The copy has no LifeListener and hands out its own Monster views.
+     * @return The copy
+     */
+    public MonsterPool copy() {
+        return new MonsterPool(this);
+    }
+
+    // ==================== ADDING MONSTERS ====================
+
+    /**
+     * Add a monster with random stats (same ranges as new Monster())
+     * @return The new monster's index
+     */
+    public int spawn() {
+        return spawn("", GameRandom.current());
+    }
+
+    /**
+     * Add a monster with random stats and a special ability
+     * @param special The special ability name
+     * @return The new monster's index
+     */
+    public int spawn(String special) {
+        return spawn(special, GameRandom.current());
+    }
+
+    /**
+     * Add a monster with stats rolled from a given generator
+     * @param special The special ability name ("" for none)
+     * @param random Where the random stats come from
+     * @return The new monster's index
+     */
+    public int spawn(String special, RandomGenerator random) {
+        return add(Monster.rollHealth(random), Monster.rollDamage(random), Monster.rollSpeed(random), special);
+    }
+
+    /**
+     * Add a copy of an existing monster's stats
+     * @param monster The monster to copy
+     * @return The new monster's index
+     */
+    public int add(Monster monster) {
+        return add(monster.health(), monster.damage(), monster.speed(), monster.specialId());
+    }
+
+    /**
+     * Add a monster with exact stats
+     * @return The new monster's index
+     */
+    public int add(int health, double damage, int speed, String special) {
+        return add(health, damage, speed, AbilityRegistry.idOf(special));
+    }
+
+    /**
+     * Add a monster with exact stats and an ability id
+     * @return The new monster's index
+     */
+    public int add(int health, double damage, int speed, int specialId) {
+        if (size == this.health.length) {
+            grow();
+        }
+        int i = size++;
+        this.health[i] = health;
+        this.maxHealth[i] = health;
+        this.damage[i] = damage;
+        this.speed[i] = speed;
+        this.specialId[i] = specialId;
+        if (health > 0) living.add(i);
+        return i;
+    }
+
+    /**
+     * Double the capacity of every array
+     */
+    private void grow() {
+        int capacity = health.length * 2;
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        specialId = Arrays.copyOf(specialId, capacity);
+    }
+
+    // ==================== READING STATS ====================
+
+    /**
+     * Get the number of monsters (living and dead)
+     * @return The monster count
+     */
+    public int size() {
+        return size;
+    }
+
+    public int health(int i) { return health[i]; }
+    public int maxHealth(int i) { return maxHealth[i]; }
+    public double damage(int i) { return Monster.roundDamage(damage[i]); }
+    public int speed(int i) { return speed[i]; }
+    public int specialId(int i) { return specialId[i]; }
+    public String special(int i) { return AbilityRegistry.nameOf(specialId[i]); }
+
+    // ==================== DAMAGE ====================
+
+    /**
+     * Damage one monster
+     * @param i The monster's index
+     * @param dmg How much damage
+     */
+    public void takeDamage(int i, int dmg) {
+        int before = health[i];
+        health[i] = minus(before, dmg);
+        if (before > 0 && health[i] <= 0) {
+            living.remove(i);
+            if (lifeListener != null) lifeListener.died(i);
+        } else if (before <= 0 && health[i] > 0) {
+            living.add(i);
+            if (lifeListener != null) lifeListener.revived(i);
+        }
+    }
+
+    /**
+     * Heal one monster, but not past a maximum (e.g. maxHealth(i))
+     * @param i The monster's index
+     * @param amount How much health to give
+     * @param max The most health it may end up with
+     * @return How much it actually healed (0 if it was already at max)
+     */
+    public int heal(int i, int amount, int max) {
+        int healed = (int) Math.max(0, Math.min(amount, (long) max - health[i]));
+        if (healed > 0) takeDamage(i, -healed);
+        return healed;
+    }
+
+    // ==================== AREA OF EFFECT ====================
+    // Every bulk operation only touches living monsters (dead ones stay dead).
+    //
+    // The loops over the health array are written so the JIT can turn them
+    // into SIMD instructions: plain int math on one array, no calls and no
+    // branches. "Is it alive?" becomes a mask: ((-h & ~h) >> 31) is all ones
+    // when h > 0 and zero otherwise (also for Integer.MIN_VALUE, where -h
+    // is h). Deaths are counted first in the same style; only if something
+    // dies do we need a slower loop that updates the AliveSet. When few
+    // monsters are left, the living ones are visited directly instead of
+    // scanning the whole array.
+    //
+    // Health never wraps around: a huge heal stops at Integer.MAX_VALUE.
+    // The count is done in long so that it can see those cases too, and
+    // sends them down the slower loop, which saturates.
+
+    /**
+     * Damage every living monster (a bomb)
+     * @param dmg How much damage each one takes (negative heals)
+     */
+    public void damageAll(int dmg) {
+        if (living.size() < size / SPARSE) {
+            damageLiving(dmg);
+        } else {
+            damageRange(0, size, dmg);
+        }
+    }
+
+    /**
+     * Damage the living monsters with index from..to-1 (splash, cleave)
+     * @param from First index
+     * @param to One past the last index
+     * @param dmg How much damage each one takes (negative heals)
+     */
+    public void damageRange(int from, int to, int dmg) {
+        from = Math.max(0, from);
+        to = Math.min(size, to);
+        if (from >= to) return;
+
+        if (countDeathsOrOverflows(health, from, to, dmg) == 0) {
+            subtractIfAlive(health, from, to, dmg);  // nobody dies: one branch-free pass
+        } else {
+            damageRangeWithDeaths(from, to, dmg);
+        }
+    }
+
+    /**
+     * Damage the living monsters a filter picks (e.g. only the fast ones)
+     * @param filter Gets a monster's index, returns true to damage it
+     * @param dmg How much damage each one takes (negative heals)
+     */
+    public void damageWhere(IntPredicate filter, int dmg) {
+        for (int k = living.size() - 1; k >= 0; k--) {
+            int i = living.get(k);
+            if (filter.test(i)) {
+                hitLiving(i, dmg);
+            }
+        }
+    }
+
+    /**
+     * Heal every living monster (a group heal)
+     * @param amount How much health each one gets
+     */
+    public void healAll(int amount) {
+        damageAll(-amount);
+    }
+
+    /**
+     * Heal the living monsters with index from..to-1
+     * @param from First index
+     * @param to One past the last index
+     * @param amount How much health each one gets
+     */
+    public void healRange(int from, int to, int amount) {
+        damageRange(from, to, -amount);
+    }
+
+    /**
+     * Set every negative health to 0 (so dead monsters show "HP: 0")
+     */
+    public void clampToZero() {
+        int[] h = health;
+        for (int i = 0; i < size; i++) {
+            int v = h[i];
+            h[i] = v & ~(v >> 31);  // v if v >= 0, else 0
+        }
+    }
+
+    /**
+     * Count the living monsters in from..to-1 that dmg would kill, or heal
+     * past Integer.MAX_VALUE
+     */
+    private static int countDeathsOrOverflows(int[] h, int from, int to, int dmg) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            long v = h[i];
+            long after = v - dmg;
+            // alive (v > 0) and (after <= 0 or after > MAX_VALUE), as sign bits
+            long alive = -v;
+            long dies = after - 1;
+            long overflows = Integer.MAX_VALUE - after;
+            count += (int) ((alive & (dies | overflows)) >>> 63);
+        }
+        return count;
+    }
+
+    /**
+     * Subtract dmg from every positive h[i] in from..to-1
+     */
+    private static void subtractIfAlive(int[] h, int from, int to, int dmg) {
+        for (int i = from; i < to; i++) {
+            int v = h[i];
+            h[i] = v - (dmg & ((-v & ~v) >> 31));
+        }
+    }
+
+    private void damageRangeWithDeaths(int from, int to, int dmg) {
+        int[] h = health;
+        for (int i = from; i < to; i++) {
+            if (h[i] > 0) {
+                hitLiving(i, dmg);
+            }
+        }
+    }
+
+    /**
+     * Visit only the living monsters (backwards, so removals don't skip any)
+     */
+    private void damageLiving(int dmg) {
+        for (int k = living.size() - 1; k >= 0; k--) {
+            hitLiving(living.get(k), dmg);
+        }
+    }
+
+    private void hitLiving(int i, int dmg) {
+        health[i] = minus(health[i], dmg);
+        if (health[i] <= 0) {
+            living.remove(i);
+            if (lifeListener != null) lifeListener.died(i);
+        }
+    }
+
+    /**
+     * health - dmg, stopping at the int limits instead of wrapping around
+     */
+    private static int minus(int health, int dmg) {
+        long after = (long) health - dmg;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, after));
+    }
+
+    /**
+     * Set who hears about monsters dying (e.g. a TurnScheduler)
+     * @param listener The listener, or null for nobody
+     */
+    public void setLifeListener(LifeListener listener) {
+        this.lifeListener = listener;
+    }
+
+    /**
+     * Count how many monsters are still alive
+     * @return The number of monsters with health above 0
+     */
+    public int countLiving() {
+        return living.size();
+    }
+
+    /**
+     * Pick a random living monster
+     * @return Its index, or -1 if all are defeated
+     */
+    public int randomLiving() {
+        return living.randomIndex();
+    }
+
+    /**
+     * Pick a random living monster using a given generator
+     * @param random Where the random number comes from
+     * @return Its index, or -1 if all are defeated
+     */
+    public int randomLiving(RandomGenerator random) {
+        return living.randomIndex(random);
+    }
+
+    /**
+     * Get the set of living monster indices
+     * @return The live set (do not modify)
+     */
+    public AliveSet living() {
+        return living;
+    }
+
+    // ==================== MONSTER VIEWS ====================
+
+    /**
+     * Get a Monster that reads and writes slot i of this pool
+     *
+     * Only this one view is made (not one per monster up to i), so picking
+     * one monster out of a million stays cheap.
+     * @param i The monster's index
+     * @return The view from asList() if it has been made, else a new one
+     */
+    public Monster get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Monster " + i + " of " + size);
+        }
+        return i < views.size() ? views.get(i) : new View(i);
+    }
+
+    /**
+     * Get every monster as a list of views, e.g. for MonsterBattleGUI.updateMonsters()
+     *
+     * The list is kept and grows as monsters are added, so calling this
+     * every turn does not create new objects. It is read-only: removing or
+     * moving a view would leave it under another monster's index, so every
+     * change throws UnsupportedOperationException.
+     * @return A read-only list with one view per monster
+     */
+    public ArrayList<Monster> asList() {
+        for (int i = views.size(); i < size; i++) {
+            views.append(new View(i));
+        }
+        return views;
+    }
+
+    /**
+     * ViewList - The read-only ArrayList asList() hands out
+     *
+     * It stays an ArrayList so it can go straight to BattleView and the
+     * panels; only append() (used by the pool) can change it.
+     */
+    private static class ViewList extends ArrayList<Monster> {
+        private static final long serialVersionUID = 1L;
+
+        void append(Monster view) {
+            super.add(view);
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("MonsterPool.asList() is read-only");
+        }
+
+        @Override public boolean add(Monster m) { throw readOnly(); }
+        @Override public void add(int index, Monster m) { throw readOnly(); }
+        @Override public boolean addAll(Collection<? extends Monster> c) { throw readOnly(); }
+        @Override public boolean addAll(int index, Collection<? extends Monster> c) { throw readOnly(); }
+        @Override public Monster set(int index, Monster m) { throw readOnly(); }
+        @Override public Monster remove(int index) { throw readOnly(); }
+        @Override public boolean remove(Object o) { throw readOnly(); }
+        @Override public boolean removeAll(Collection<?> c) { throw readOnly(); }
+        @Override public boolean retainAll(Collection<?> c) { throw readOnly(); }
+        @Override public boolean removeIf(Predicate<? super Monster> filter) { throw readOnly(); }
+        @Override protected void removeRange(int from, int to) { throw readOnly(); }
+        @Override public void replaceAll(UnaryOperator<Monster> operator) { throw readOnly(); }
+        @Override public void sort(Comparator<? super Monster> c) { throw readOnly(); }
+        @Override public void clear() { throw readOnly(); }
+        @Override public List<Monster> subList(int from, int to) {
+            return Collections.unmodifiableList(super.subList(from, to));
+        }
+    }
+
+    /**
+     * View - A Monster whose stats live in the pool's arrays
+     */
+    private class View extends Monster {
+        private final int index;
+
+        View(int index) {
+            super(0, 0, 0, "");
+            this.index = index;
+        }
+
+        @Override public int health() { return health[index]; }
+        @Override public double damage() { return MonsterPool.this.damage(index); }
+        @Override public int speed() { return speed[index]; }
+        @Override public String special() { return MonsterPool.this.special(index); }
+        @Override public int specialId() { return specialId[index]; }
+        @Override public void takeDamage(int dmg) { MonsterPool.this.takeDamage(index, dmg); }
+    }
+}
@@ -0,0 +1,18 @@
+package game;
+/**
+ * PlayerPolicy - Decides the player's action each turn
+ *
+ * BattleEngine.run() asks its BattleView (the buttons) by default.
+ * Pass a PlayerPolicy to run() to let code play instead, e.g. a scripted
+ * player for balance testing or an AI opponent.
+ */
+@FunctionalInterface
+public interface PlayerPolicy {
+
+    /**
+     * Choose the next action
+     * @param engine The battle being played (read its state, don't change it)
+     * @return 0 = Attack, 1 = Defend, 2 = Heal, 3 = Use Item, or -1 to stop
+     */
+    int chooseAction(BattleEngine engine);
+}
@@ -0,0 +1,164 @@
+package game;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionHost - Runs many players' battles at once in one JVM
+ *
+ * Every BattleSession gets its own thread, because a battle spends most of
+ * its life blocked waiting for the player. On Java 21+ those are virtual
+ * threads, so thousands of sessions cost a few KB each instead of a
+ * platform thread each. On older Java it falls back to a cached thread pool.
+ *
+ * The host only keeps sessions that are still running: a finished battle
+ * is dropped as soon as its thread ends, so a long-running host doesn't
+ * hold on to every engine it ever ran. Keep the BattleSession returned by
+ * start() to read its result afterwards.
+ *
+ * Usage:
+ *   java -Djava.awt.headless=true -cp bin game.SessionHost [sessions]
+ * runs a load test where bots play every session.
+ */
+public class SessionHost implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final ConcurrentHashMap<Long, BattleSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Constructor - uses virtual threads when the JVM has them
+     */
+    public SessionHost() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Get Executors.newVirtualThreadPerTaskExecutor() if this JVM has it (Java 21+)
+     * @return The executor, or null on older Java
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start a new battle on its own thread
+     * @param build 0 = Fighter, 1 = Tank, 2 = Healer, 3 = Ninja
+     * @param monsterCount How many monsters to fight
+     * @param seed Seed for the battle's random rolls
+     * @return The running session
+     */
+    public BattleSession start(int build, int monsterCount, long seed) {
+        BattleSession session = new BattleSession(nextId.getAndIncrement(), build, monsterCount, seed);
+        sessions.put(session.getId(), session);
+        executor.execute(() -> {
+            try {
+                session.run();
+            } finally {
+                sessions.remove(session.getId(), session);  // done, let it go
+            }
+        });
+        return session;
+    }
+
+    /**
+     * Find a running session by id
+     * @param id The session's id
+     * @return The session, or null if there is none (or it has finished)
+     */
+    public BattleSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Forget a session, ending its battle if it is still running
+     * @param id The session's id
+     */
+    public void remove(long id) {
+        BattleSession session = sessions.remove(id);
+        if (session != null) {
+            session.cancel();
+        }
+    }
+
+    /**
+     * Get every session that is still running
+     * @return A live view of the sessions
+     */
+    public Collection<BattleSession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Check which kind of threads the sessions run on
+     * @return true for virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop every battle that is still running
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        SplittableRandom random = new SplittableRandom(42);
+
+        try (SessionHost host = new SessionHost()) {
+            long start = System.nanoTime();
+            ArrayList<BattleSession> running = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                running.add(host.start(random.nextInt(4), 2 + random.nextInt(4), random.nextLong()));
+            }
+
+            // One bot thread plays every session: answer whoever is waiting
+            long actions = 0;
+            while (!running.isEmpty()) {
+                boolean progress = false;
+                for (int i = running.size() - 1; i >= 0; i--) {
+                    BattleSession session = running.get(i);
+                    if (session.isFinished()) {
+                        running.set(i, running.get(running.size() - 1));
+                        running.remove(running.size() - 1);
+                        progress = true;
+                    } else if (session.isWaitingForAction()) {
+                        session.submit(random.nextInt(10) < 8 ? 0 : 2);
+                        actions++;
+                        progress = true;
+                    }
+                }
+                if (!progress) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d sessions, %,d actions in %.2f s on %s threads%n",
+                count, actions, seconds, host.usesVirtualThreads() ? "virtual" : "platform");
+        }
+    }
+}
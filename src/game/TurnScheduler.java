@@ -0,0 +1,226 @@
+package game;
+import java.util.Arrays;
+
+/**
+ * TurnScheduler - Decides who acts next, based on speed
+ *
+ * Every actor (the player and each monster) has a time when it acts
+ * next. After acting, it waits TICKS_PER_ROUND / speed ticks, so a speed 10
+ * actor acts twice as often as a speed 5 one (speeds above TICKS_PER_ROUND
+ * all wait 1 tick). The actor with the earliest time goes next; ties go to
+ * the lower actor number.
+ *
+ * The times are kept in a binary heap of plain int/long arrays, and each
+ * actor remembers its place in the heap. So:
+ * - next() is O(1)
+ * - advance() (act, then wait for the next turn) is O(log n)
+ * - remove() (e.g. when a monster dies) is O(log n)
+ * - setSpeed() is O(log n)
+ * and none of them create objects, so it copes with thousands of actors.
+ *
+ * Actors are numbered 0 to capacity - 1; how the numbers are used is up
+ * to the game (BattleEngine uses 0 for the player, i + 1 for monster i).
+ */
+public class TurnScheduler {
+
+    // Ticks a speed-1 actor waits between turns
+    public static final int TICKS_PER_ROUND = 2520;  // divisible by 1-10, so no rounding
+
+    private int[] heap;     // actors, earliest time first
+    private int[] place;    // place[actor] = position in heap, or -1
+    private long[] time;    // time[actor] = when it acts next
+    private int[] speed;    // speed[actor]
+    private long[] delay;   // delay[actor] = ticks between its turns
+    private int size;
+    private long now;
+
+    /**
+     * Constructor
+     * @param capacity How many actor numbers to make room for up front
+     */
+    public TurnScheduler(int capacity) {
+        capacity = Math.max(1, capacity);
+        heap = new int[capacity];
+        place = new int[capacity];
+        time = new long[capacity];
+        speed = new int[capacity];
+        delay = new long[capacity];
+        Arrays.fill(place, -1);
+    }
+
+    /**
+     * Add an actor; its first turn comes one wait from now
+     * @param actor The actor's number
+     * @param actorSpeed How fast it is (below 1 counts as 1)
+     */
+    public void add(int actor, int actorSpeed) {
+        if (actor >= place.length) {
+            grow(actor + 1);
+        }
+        if (place[actor] >= 0) {
+            setSpeed(actor, actorSpeed);
+            return;
+        }
+        speed[actor] = Math.max(1, actorSpeed);
+        delay[actor] = delayFor(speed[actor]);
+        time[actor] = now + delay[actor];
+        heap[size] = actor;
+        place[actor] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * See who acts next without changing anything
+     * @return The actor's number, or -1 if there are none
+     */
+    public int next() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Move time to the next actor's turn and schedule its following turn
+     * @return The actor whose turn it is, or -1 if there are none
+     */
+    public int advance() {
+        if (size == 0) return -1;
+        int actor = heap[0];
+        now = time[actor];
+        time[actor] = now + delay[actor];
+        siftDown(0);
+        return actor;
+    }
+
+    /**
+     * Take an actor out (it gets no more turns)
+     * @param actor The actor's number
+     */
+    public void remove(int actor) {
+        if (actor < 0 || actor >= place.length) return;
+        int i = place[actor];
+        if (i < 0) return;
+
+        size--;
+        place[actor] = -1;
+        if (i == size) return;
+
+        // Move the last actor into the hole and restore the heap order
+        int last = heap[size];
+        heap[i] = last;
+        place[last] = i;
+        siftDown(i);
+        siftUp(place[last]);
+    }
+
+    /**
+     * Change an actor's speed; its next turn moves as if it had always had it
+     * @param actor The actor's number
+     * @param actorSpeed The new speed (below 1 counts as 1)
+     */
+    public void setSpeed(int actor, int actorSpeed) {
+        int i = actor < place.length ? place[actor] : -1;
+        if (i < 0) return;
+        actorSpeed = Math.max(1, actorSpeed);
+
+        // Keep the part of the wait already done, at the new speed
+        long remaining = time[actor] - now;
+        long newRemaining = remaining * speed[actor] / actorSpeed;
+        speed[actor] = actorSpeed;
+        delay[actor] = delayFor(actorSpeed);
+        time[actor] = now + newRemaining;
+        siftUp(i);
+        siftDown(place[actor]);
+    }
+
+    /**
+     * Check if an actor is scheduled
+     * @param actor The actor's number
+     * @return true if it will get more turns
+     */
+    public boolean contains(int actor) {
+        return actor >= 0 && actor < place.length && place[actor] >= 0;
+    }
+
+    /**
+     * Count the scheduled actors
+     * @return How many there are
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the current time
+     * @return Ticks since the scheduler started
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Get when an actor acts next
+     * @param actor The actor's number
+     * @return The time in ticks
+     */
+    public long timeOf(int actor) {
+        return time[actor];
+    }
+
+    /**
+     * Ticks between turns; at least 1, or an actor faster than
+     * TICKS_PER_ROUND would get every turn and nobody else would act
+     */
+    private static long delayFor(int actorSpeed) {
+        return Math.max(1, TICKS_PER_ROUND / actorSpeed);
+    }
+
+    // ==================== HEAP ====================
+
+    private boolean before(int a, int b) {
+        return time[a] < time[b] || (time[a] == time[b] && a < b);
+    }
+
+    private void siftUp(int i) {
+        int actor = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int other = heap[parent];
+            if (!before(actor, other)) break;
+            heap[i] = other;
+            place[other] = i;
+            i = parent;
+        }
+        heap[i] = actor;
+        place[actor] = i;
+    }
+
+    private void siftDown(int i) {
+        int actor = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && before(heap[right], heap[child])) {
+                child = right;
+            }
+            int other = heap[child];
+            if (!before(other, actor)) break;
+            heap[i] = other;
+            place[other] = i;
+            i = child;
+        }
+        heap[i] = actor;
+        place[actor] = i;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, place.length * 2);
+        heap = Arrays.copyOf(heap, capacity);
+        int old = place.length;
+        place = Arrays.copyOf(place, capacity);
+        Arrays.fill(place, old, capacity, -1);
+        time = Arrays.copyOf(time, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        delay = Arrays.copyOf(delay, capacity);
+    }
+}
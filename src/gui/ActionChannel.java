@@ -0,0 +1,175 @@
+package gui;
+import java.time.Duration;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ActionChannel - Hands the player's chosen actions to the game thread
+ *
+ * Clicks (or network messages) call offer(); the game thread calls await().
+ * Built on a lock-free LinkedTransferQueue instead of synchronized/wait(),
+ * so a waiting virtual thread is parked rather than pinned, and a click is
+ * handed straight to the waiting thread.
+ *
+ * Features:
+ * - await(Duration) gives up after a timeout
+ * - setTypeAhead(n) keeps up to n early actions for the next turns
+ *   (0 = ignore actions nobody is waiting for, like the original buttons)
+ * - cancel() wakes the waiting thread with NO_ACTION
+ */
+public class ActionChannel {
+
+    // Returned when there is no action: timeout, cancel or interrupt
+    public static final int NO_ACTION = -1;
+
+    private final LinkedTransferQueue<Integer> queue = new LinkedTransferQueue<>();
+    private final AtomicLong requested = new AtomicLong();  // actions asked for by await()
+    private final AtomicLong delivered = new AtomicLong();  // actions accepted by offer()
+    private volatile boolean cancelled;
+    private volatile int typeAhead;
+
+    /**
+     * Offer an action to the game
+     * @param action The action index (0-3)
+     * @return true if the action was taken or queued, false if it was ignored
+     */
+    public boolean offer(int action) {
+        if (cancelled) return false;
+
+        // Accept if await() is waiting (delivered < requested)
+        // or there is still room to type ahead. The slot is reserved with
+        // compareAndSet, so two offers at once can't both take the last one.
+        long taken;
+        do {
+            taken = delivered.get();
+            if (taken - requested.get() >= typeAhead) {
+                return false;
+            }
+        } while (!delivered.compareAndSet(taken, taken + 1));
+        queue.offer(action);  // goes straight to a waiting thread if there is one
+        return true;
+    }
+
+    /**
+     * Wait for the next action
+     * @return The action, or NO_ACTION if cancelled or interrupted
+     */
+    public int await() {
+        if (cancelled) return NO_ACTION;
+        requested.incrementAndGet();
+        // cancel() may have run between the check and the increment,
+        // counting its wake-ups before this thread asked for one
+        if (cancelled) return withdraw();
+        try {
+            return unwrap(queue.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return withdraw();
+        }
+    }
+
+    /**
+     * Wait for the next action, but not forever
+     * @param timeout How long to wait
+     * @return The action, or NO_ACTION if timed out, cancelled or interrupted
+     */
+    public int await(Duration timeout) {
+        if (cancelled) return NO_ACTION;
+        requested.incrementAndGet();
+        if (cancelled) return withdraw();
+        try {
+            Integer action = queue.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (action == null) {
+                return withdraw();  // timed out
+            }
+            return unwrap(action);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return withdraw();
+        }
+    }
+
+    /**
+     * Stop waiting without an action
+     *
+     * An offer() that saw this thread waiting just before it gave up has
+     * already reserved its slot; if that pushed the queue past the type-ahead
+     * limit, the action is taken now instead of being left for the next turn.
+     * @return That action, or NO_ACTION
+     */
+    private int withdraw() {
+        long waiting = requested.decrementAndGet();
+        if (delivered.get() - waiting <= typeAhead) {
+            return NO_ACTION;
+        }
+        requested.incrementAndGet();
+        Integer action;
+        while ((action = queue.poll()) == null) {
+            Thread.onSpinWait();  // offer() is between its reservation and queue.offer()
+        }
+        return unwrap(action);
+    }
+
+    private int unwrap(Integer action) {
+        if (action == null || cancelled) return NO_ACTION;
+        return action;
+    }
+
+    /**
+     * Wake anyone waiting with NO_ACTION and ignore further actions
+     */
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+        // One wake-up per waiting thread, plus one in case await() is about to
+        // block. Queued type-ahead makes the difference negative, and the
+        // clear() above just dropped those actions, so never offer fewer than one.
+        long waiting = Math.max(0, requested.get() - delivered.get());
+        for (long i = 0; i <= waiting; i++) {
+            queue.offer(NO_ACTION);
+        }
+    }
+
+    /**
+     * Undo cancel() and forget any queued actions
+     */
+    public void reset() {
+        queue.clear();
+        requested.set(0);
+        delivered.set(0);
+        cancelled = false;
+    }
+
+    /**
+     * Set how many actions may be queued while nobody is waiting
+     * @param typeAhead Max queued actions (0 = ignore them)
+     */
+    public void setTypeAhead(int typeAhead) {
+        this.typeAhead = Math.max(0, typeAhead);
+    }
+
+    /**
+     * Get how many actions may be queued while nobody is waiting
+     * @return The type-ahead limit
+     */
+    public int getTypeAhead() {
+        return typeAhead;
+    }
+
+    /**
+     * Check if the game is waiting for an action
+     * @return true while await() has asked for more actions than were offered
+     */
+    public boolean isAwaiting() {
+        return requested.get() > delivered.get();
+    }
+
+    /**
+     * Check if the channel was cancelled
+     * @return true after cancel() until reset()
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,207 @@
+package gui;
+import javax.swing.*;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * AnimationTimeline - Runs display effects later, without stopping the game
+ *
+ * A highlight that should go away after 300 ms used to be "highlight,
+ * pause(300), clear" on the game thread, so the game stood still while the
+ * window animated. The timeline instead keeps a list of steps due at later
+ * times and runs them on the event thread from one javax.swing.Timer, while
+ * the game carries on.
+ *
+ * pause() is a step too: the game thread waits for it to come up instead
+ * of sleeping, so the turn's pacing follows the same clock as its effects.
+ *
+ * All delays (and pause()) go through a speed multiplier: 2 is twice as
+ * fast, 0.5 half as fast, and TURBO makes every delay zero, so automated
+ * playthroughs run at CPU speed. A new speed applies to delays scheduled
+ * after it (turbo also runs everything already waiting). Steps are never
+ * skipped, only run sooner, so the window always ends up showing the
+ * final state.
+ */
+public class AnimationTimeline {
+
+    // Speed that makes every delay zero
+    public static final double TURBO = Double.POSITIVE_INFINITY;
+
+    private volatile double speed = 1;
+
+    // Event thread only
+    private final PriorityQueue<Step> steps = new PriorityQueue<>();
+    private final Timer timer;
+    private long nextSequence;
+
+    /**
+     * Step - Something to run at a certain time (ties run in the order added)
+     */
+    private static final class Step implements Comparable<Step> {
+        final long dueNanos;
+        final long sequence;
+        final Runnable action;
+
+        Step(long dueNanos, long sequence, Runnable action) {
+            this.dueNanos = dueNanos;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int byTime = Long.compare(dueNanos, other.dueNanos);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    public AnimationTimeline() {
+        timer = new Timer(0, e -> runDue());
+        timer.setRepeats(false);
+    }
+
+    // ==================== SPEED ====================
+
+    /**
+     * Set how fast effects and pauses play
+     * @param speed 1 = normal, 2 = twice as fast, TURBO = no delays at all
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive: " + speed);
+        }
+        this.speed = speed;
+        if (speed == TURBO) {
+            SwingUtilities.invokeLater(this::runDue);  // nothing waits any more
+        }
+    }
+
+    /**
+     * Get how fast effects and pauses play
+     * @return The speed multiplier (TURBO for no delays)
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Check if delays are turned off
+     * @return true in turbo mode
+     */
+    public boolean isTurbo() {
+        return speed == TURBO;
+    }
+
+    /**
+     * Scale a delay by the current speed
+     * @param milliseconds The delay at normal speed
+     * @return The delay to use, in nanoseconds (0 in turbo mode)
+     */
+    public long scale(int milliseconds) {
+        if (milliseconds <= 0) return 0;
+        return (long) (milliseconds * 1_000_000L / speed);
+    }
+
+    // ==================== CALLED FROM ANY THREAD ====================
+
+    /**
+     * Run something on the event thread after a delay (scaled by the speed)
+     * @param delayMillis The delay at normal speed
+     * @param action What to run
+     */
+    public void schedule(int delayMillis, Runnable action) {
+        long due = System.nanoTime() + scale(delayMillis);
+        if (SwingUtilities.isEventDispatchThread()) {
+            add(due, action);
+        } else {
+            SwingUtilities.invokeLater(() -> add(due, action));
+        }
+    }
+
+    /**
+     * Wait on the game thread (scaled by the speed; returns at once in turbo mode)
+     *
+     * The wait is a step on the timeline like any effect, so the game goes on
+     * once the steps due before it have run, and switching to turbo (or
+     * finish()) lets it go at once. On the event thread, which runs the
+     * timeline and cannot wait for it, this is a plain sleep.
+     * @param milliseconds The wait at normal speed
+     */
+    public void pause(int milliseconds) {
+        long nanos = scale(milliseconds);
+        if (nanos == 0) return;
+        try {
+            if (SwingUtilities.isEventDispatchThread()) {
+                Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+                return;
+            }
+            CountDownLatch done = new CountDownLatch(1);
+            long due = System.nanoTime() + nanos;
+            SwingUtilities.invokeLater(() -> add(due, done::countDown));
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== EVENT THREAD ONLY ====================
+
+    /**
+     * Run every waiting step now, in order (e.g. before taking a screenshot)
+     */
+    public void finish() {
+        timer.stop();
+        Step step;
+        while ((step = steps.poll()) != null) {
+            step.action.run();
+        }
+    }
+
+    /**
+     * Check if any step is still waiting
+     * @return true if there is more to run
+     */
+    public boolean isBusy() {
+        return !steps.isEmpty();
+    }
+
+    private void add(long dueNanos, Runnable action) {
+        steps.add(new Step(dueNanos, nextSequence++, action));
+        if (isTurbo()) {
+            runDue();  // nothing waits in turbo mode
+        } else if (steps.peek().dueNanos == dueNanos) {
+            reschedule();  // the new step is the next one due
+        }
+    }
+
+    /**
+     * Run the steps that are due, then set the timer for the next one
+     */
+    private void runDue() {
+        long now = System.nanoTime();
+        boolean turbo = isTurbo();
+        Step step;
+        while ((step = steps.peek()) != null && (turbo || step.dueNanos <= now)) {
+            steps.poll();
+            step.action.run();
+        }
+        reschedule();
+    }
+
+    private void reschedule() {
+        timer.stop();
+        Step next = steps.peek();
+        if (next == null) return;
+        if (isTurbo()) {
+            runDue();
+            return;
+        }
+        long waitMillis = Math.max(0, (next.dueNanos - System.nanoTime() + 999_999) / 1_000_000);
+        timer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, waitMillis));
+        timer.start();
+    }
+}
@@ -0,0 +1,88 @@
+package gui;
+import javax.swing.*;
+
+import java.awt.*;
+import java.awt.event.ActionListener;
+
+/**
+ * BattleScreen - Everything inside the battle window, without the window
+ *
+ * Monsters in the middle, inventory on the right, player status, buttons
+ * and messages along the bottom. MonsterBattleGUI shows it in a JFrame;
+ * OffscreenBattleView paints it into images without ever showing it, so
+ * both always look the same.
+ */
+class BattleScreen extends JPanel {
+
+    // Size of the battle window
+    static final int WINDOW_WIDTH = 1000;
+    static final int WINDOW_HEIGHT = 800;
+
+    final MonsterDisplayPanel monsterPanel;
+    final ActionButtonPanel buttonPanel;
+    final InventoryPanel inventoryPanel;
+    final MessagePanel messagePanel;
+    final PlayerStatusPanel playerStatusPanel;
+
+    /**
+     * Constructor
+     * @param buttonListener Gets the action buttons' clicks
+     */
+    BattleScreen(ActionListener buttonListener) {
+        super(new BorderLayout(10, 10));
+        monsterPanel = new MonsterDisplayPanel();
+        buttonPanel = new ActionButtonPanel(buttonListener);
+        inventoryPanel = new InventoryPanel();
+        messagePanel = new MessagePanel();
+        playerStatusPanel = new PlayerStatusPanel(100);
+
+        // Center: Monsters
+        add(monsterPanel, BorderLayout.CENTER);
+
+        // Bottom: Player status, buttons, messages
+        JPanel bottomPanel = new JPanel(new BorderLayout(10, 10));
+        JPanel controlPanel = new JPanel(new BorderLayout(10, 10));
+        controlPanel.add(playerStatusPanel, BorderLayout.NORTH);
+        controlPanel.add(buttonPanel, BorderLayout.CENTER);
+        bottomPanel.add(controlPanel, BorderLayout.CENTER);
+        bottomPanel.add(messagePanel, BorderLayout.SOUTH);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        // Right: Inventory
+        add(inventoryPanel, BorderLayout.EAST);
+
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    }
+
+    /**
+     * Lay out the whole tree at its current size
+     *
+     * A window does this through validate(), which needs a real window
+     * behind it. A screen that is never shown is laid out by hand: first
+     * forget every cached size (labels may have new text), then lay out
+     * from the top down.
+     */
+    void layOut() {
+        invalidateAll(this);
+        layOut(this);
+    }
+
+    private static void invalidateAll(Component component) {
+        component.invalidate();
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                invalidateAll(child);
+            }
+        }
+    }
+
+    private static void layOut(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layOut(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package gui;
+import game.Inventory;
+import game.Item;
+import game.Monster;
+import game.MonsterPool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+/**
+ * BattleView - Everything a battle needs from a display
+ *
+ * MonsterBattleGUI implements this with a real window. HeadlessBattleView
+ * implements it without Swing so battles can run on servers and in tests.
+ * OffscreenBattleView draws the window's screen into images instead.
+ * Game code should talk to a BattleView instead of the window directly.
+ */
+public interface BattleView {
+
+    /**
+     * Update the monster display
+     * @param monsters The list of monsters
+     */
+    void updateMonsters(ArrayList<Monster> monsters);
+
+    /**
+     * Update the monster display from a MonsterPool
+     * @param pool The pool of monsters
+     */
+    default void updateMonsters(MonsterPool pool) {
+        updateMonsters(pool.asList());
+    }
+
+    /**
+     * Update player's current health
+     * @param health Current health value
+     */
+    void updatePlayerHealth(int health);
+
+    /**
+     * Set player's maximum health
+     * @param maxHealth Maximum health value
+     */
+    void setPlayerMaxHealth(int maxHealth);
+
+    /**
+     * Set player's speed stat
+     * @param speed The speed value
+     */
+    void setPlayerSpeed(int speed);
+
+    /**
+     * Update the inventory display
+     * @param items The list of items
+     */
+    void updateInventory(ArrayList<Item> items);
+
+    /**
+     * Update the inventory display from a stacked Inventory
+     * @param inventory The inventory
+     */
+    default void updateInventory(Inventory inventory) {
+        updateInventory(inventory.toItems());
+    }
+
+    /**
+     * Display a message to the player
+     * @param message The message text
+     */
+    void displayMessage(String message);
+
+    /**
+     * Set button labels (4 buttons: indices 0-3)
+     * @param labels Array of 4 button labels
+     */
+    void setActionButtons(String[] labels);
+
+    /**
+     * Wait for the player to choose an action
+     * @return Action index (0-3), or -1 if interrupted
+     */
+    int waitForAction();
+
+    /**
+     * Wait for the player to choose an action, but not forever
+     * @param timeout How long to wait
+     * @return Action index (0-3), or -1 if time ran out or interrupted
+     */
+    default int waitForAction(Duration timeout) {
+        return waitForAction();
+    }
+
+    /**
+     * Highlight a monster
+     * @param index Monster index to highlight, -1 to clear
+     */
+    void highlightMonster(int index);
+
+    /**
+     * Highlight a monster for a moment, e.g. to show who was hit
+     *
+     * Views that can animate do this without making the caller wait;
+     * by default it is highlight, pause, clear.
+     * @param index Monster index to highlight
+     * @param milliseconds How long the highlight stays (at normal speed)
+     */
+    default void flashMonster(int index, int milliseconds) {
+        highlightMonster(index);
+        pause(milliseconds);
+        highlightMonster(-1);
+    }
+
+    /**
+     * Enable/disable the action buttons
+     * @param enabled true to enable, false to disable
+     */
+    void setButtonsEnabled(boolean enabled);
+
+    /**
+     * Pause so the player can see what happened
+     * @param milliseconds Time to pause
+     */
+    void pause(int milliseconds);
+}
@@ -0,0 +1,175 @@
+package gui;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import metrics.Metrics;
+
+/**
+ * EdtWatchdog - Finds out what the event thread was doing when the window froze
+ *
+ * Swing does all drawing and all panel updates on one thread, so a slow
+ * update (building thousands of monster tiles, a big inventory) freezes the
+ * whole window. The watchdog replaces the event queue with one that times
+ * every event. A background thread looks in regularly; when the current
+ * event has run longer than the threshold, it takes the event thread's stack
+ * and logs it (java.util.logging, logger "gui.EdtWatchdog") together with the
+ * MonsterBattleGUI call that was being applied.
+ *
+ * When nothing is slow the cost is two System.nanoTime() calls, a few field
+ * writes and one Metrics.EDT_EVENT sample per event; the stack is only taken
+ * once per stalled event.
+ *
+ * Opt-in: gui.setStallWatchdog(Duration.ofMillis(200)), or run the game
+ * with -Dmonsterbattle.stallMillis=200.
+ */
+public final class EdtWatchdog extends EventQueue {
+
+    private static final Logger LOG = Logger.getLogger(EdtWatchdog.class.getName());
+
+    // Never look in more often than this
+    private static final long MIN_CHECK_MILLIS = 10;
+
+    private static volatile EdtWatchdog installed;
+
+    private final long thresholdNanos;
+    private final Thread watcher;
+    private volatile boolean stopped;
+
+    // The event being dispatched (start == 0: none)
+    private volatile long eventStart;
+    private volatile AWTEvent event;
+    private volatile Thread eventThread;
+
+    // Which MonsterBattleGUI call the event thread is applying, and the last one it applied
+    private volatile String activity;
+    private volatile String lastActivity;
+
+    // The start of the last event whose stack was logged (each stall is logged once)
+    private long reportedStart;
+
+    private EdtWatchdog(Duration threshold) {
+        thresholdNanos = threshold.toNanos();
+        watcher = new Thread(this::watch, "EDT watchdog");
+        watcher.setDaemon(true);
+    }
+
+    /**
+     * Start watching the event thread (replaces any watchdog already running)
+     * @param threshold How long one event may take before its stack is logged
+     */
+    public static synchronized void install(Duration threshold) {
+        uninstall();
+        EdtWatchdog watchdog = new EdtWatchdog(threshold);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+        watchdog.watcher.start();
+        installed = watchdog;
+    }
+
+    /**
+     * Stop watching (does nothing if no watchdog is running)
+     */
+    public static synchronized void uninstall() {
+        EdtWatchdog watchdog = installed;
+        if (watchdog == null) return;
+        installed = null;
+        watchdog.stopped = true;
+        watchdog.watcher.interrupt();
+        watchdog.pop();
+    }
+
+    /**
+     * Check if a watchdog is running
+     * @return true between install() and uninstall()
+     */
+    public static boolean isInstalled() {
+        return installed != null;
+    }
+
+    /**
+     * Say which MonsterBattleGUI call the event thread is applying now
+     *
+     * Called on the event thread by the code that applies each call; it is
+     * forgotten when the event ends. Costs one field read when no watchdog
+     * is running.
+     * @param name e.g. "MonsterBattleGUI.updateMonsters()"
+     */
+    static void activity(String name) {
+        EdtWatchdog watchdog = installed;
+        if (watchdog != null) {
+            watchdog.activity = name;
+            if (name != null) watchdog.lastActivity = name;
+        }
+    }
+
+    // ==================== EVENT THREAD ====================
+
+    @Override
+    protected void dispatchEvent(AWTEvent e) {
+        // Events can nest (e.g. a modal dialog pumps events inside one)
+        long outerStart = eventStart;
+        AWTEvent outerEvent = event;
+        String outerActivity = activity;
+
+        long start = System.nanoTime();
+        eventThread = Thread.currentThread();
+        event = e;
+        activity = null;
+        eventStart = start;
+        try {
+            super.dispatchEvent(e);
+        } finally {
+            long took = System.nanoTime() - start;
+            String name = took > thresholdNanos ? describe(e) : null;
+            eventStart = outerStart;
+            event = outerEvent;
+            activity = outerActivity;
+
+            Metrics.EDT_EVENT.record(took);
+            if (name != null) {
+                LOG.warning(String.format("Event thread blocked for %d ms in %s", took / 1_000_000, name));
+            }
+        }
+    }
+
+    // ==================== WATCHER THREAD ====================
+
+    private void watch() {
+        long sleepMillis = Math.max(MIN_CHECK_MILLIS, thresholdNanos / 2_000_000);
+        while (!stopped) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = eventStart;
+            if (start == 0 || start == reportedStart) continue;
+            long running = System.nanoTime() - start;
+            if (running <= thresholdNanos) continue;
+
+            reportedStart = start;
+            Thread thread = eventThread;
+            AWTEvent stalled = event;
+            if (thread == null || stalled == null) continue;
+            Throwable trace = new Throwable("Event thread stack");
+            trace.setStackTrace(thread.getStackTrace());
+            LOG.log(Level.WARNING, String.format("Event thread stuck for %d ms so far in %s",
+                running / 1_000_000, describe(stalled)), trace);
+        }
+    }
+
+    /**
+     * Name what an event is doing, in MonsterBattleGUI terms where possible
+     */
+    private String describe(AWTEvent e) {
+        String name = activity;
+        if (name != null) return name;
+        String source = e.getSource() == null ? "?" : e.getSource().getClass().getSimpleName();
+        String last = lastActivity;
+        return e.getClass().getSimpleName() + " from " + source
+            + (last != null ? " (last GUI call: " + last + ")" : "");
+    }
+}
@@ -0,0 +1,188 @@
+package gui;
+import game.BalanceAnalyzer;
+import game.BattleEngine;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * FrameExporter - Saves battles as PNG frame sequences, many battles at once
+ *
+ * Every battle is played on its own OffscreenBattleView (its own component
+ * tree, never shown) on a ForkJoinPool worker, and every frame the view
+ * takes is written to <directory>/<battle name>/frame-00000.png,
+ * frame-00001.png, ... The last frame shows the result. Runs with
+ * java.awt.headless=true, so CI machines without a display can check
+ * frames against golden images or stitch them into highlight reels.
+ *
+ * Saving a PNG costs several times more than drawing the frame, so the
+ * PNGs use deflate level 1 (bigger files, much quicker to write).
+ * Swing paints one component tree at a time (it holds a JVM-wide lock
+ * while painting children), but the battles and the PNG writing, which is
+ * most of the work, run on every core.
+ *
+ * A battle is anything that plays a BattleEngine on the view it is given.
+ * To replay a recorded battle, create the engine with the recorded seed
+ * and play the recorded actions through a PlayerPolicy.
+ *
+ * Usage (exports scripted-player battles, one per build):
+ *   java -Djava.awt.headless=true -cp bin gui.FrameExporter [directory] [battles] [seed]
+ */
+public class FrameExporter {
+
+    // Compression quality for ImageWriteParam that means deflate level 1, the
+    // fastest that still compresses. JDK 17's PNG writer uses level
+    // 9 - round(9 * q), older ones (int) (9 * (1 - q)); 0.85 is level 1 in both
+    // (0.9 would be level 0, no compression at all, in the older ones).
+    private static final float FAST_PNG = 0.85f;
+
+    /**
+     * Battle - One battle to export
+     */
+    public interface Battle {
+        /**
+         * Play the whole battle on the given view
+         * @param view Where the battle is drawn
+         */
+        void play(BattleView view);
+    }
+
+    private final ForkJoinPool pool;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructor - window-sized frames, on every core
+     */
+    public FrameExporter() {
+        this(ForkJoinPool.commonPool(), BattleScreen.WINDOW_WIDTH, BattleScreen.WINDOW_HEIGHT);
+    }
+
+    /**
+     * Constructor
+     * @param pool Where to play the battles (one battle per task)
+     * @param width Frame width in pixels
+     * @param height Frame height in pixels
+     */
+    public FrameExporter(ForkJoinPool pool, int width, int height) {
+        this.pool = pool;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Play every battle and save its frames (existing frames are overwritten)
+     * @param directory Gets one folder per battle
+     * @param battles Battles by name (the name is the folder name)
+     * @return How many frames were written in total
+     * @throws IOException if a folder or a frame can't be written
+     */
+    public long export(Path directory, Map<String, Battle> battles) throws IOException {
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (Map.Entry<String, Battle> entry : battles.entrySet()) {
+            Path folder = directory.resolve(entry.getKey());
+            Battle battle = entry.getValue();
+            tasks.add(pool.submit(() -> exportBattle(folder, battle)));
+        }
+
+        long frames = 0;
+        try {
+            for (ForkJoinTask<Integer> task : tasks) {
+                frames += task.join();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return frames;
+    }
+
+    /**
+     * Play one battle on a fresh view, writing each frame as it is taken
+     */
+    private int exportBattle(Path folder, Battle battle) {
+        try {
+            Files.createDirectories(folder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Writers are not thread safe, so each battle gets its own
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(FAST_PNG);
+
+        OffscreenBattleView view = new OffscreenBattleView(() -> -1, width, height);
+        view.setFrameListener((image, frame) ->
+            writeFrame(writer, param, image, folder.resolve(String.format("frame-%05d.png", frame))));
+        try {
+            battle.play(view);
+            view.captureFrame();  // how it ended
+            return view.getFrameCount();
+        } finally {
+            view.dispose();
+            writer.dispose();
+        }
+    }
+
+    private static void writeFrame(ImageWriter writer, ImageWriteParam param, BufferedImage image, Path file) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+             ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== DEMO ====================
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "frames");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        Map<String, Battle> battles = new LinkedHashMap<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            long battleSeed = seeds.nextLong();
+            int build = i % BattleEngine.BUILD_NAMES.length;
+            battles.put(String.format("battle-%03d", i), view -> {
+                BattleEngine engine = new BattleEngine(view, battleSeed);
+                engine.chooseBuild(build);
+                engine.spawnMonsters(4);
+                engine.addHealthPotion(30);
+                engine.addHealthPotion(30);
+                engine.addBomb(20);
+                engine.start();
+                engine.run(BalanceAnalyzer.SCRIPTED_PLAYER);
+            });
+        }
+
+        FrameExporter exporter = new FrameExporter();
+        long start = System.nanoTime();
+        long frames = exporter.export(directory, battles);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d battles, %d frames in %s in %.2f s (%.0f frames/s on %d threads)%n",
+            count, frames, directory, seconds, frames / seconds, exporter.pool.getParallelism());
+    }
+}
@@ -0,0 +1,136 @@
+package gui;
+import game.Inventory;
+import game.Item;
+import game.Monster;
+import game.MonsterPool;
+
+import java.util.ArrayList;
+import java.util.function.IntSupplier;
+
+/**
+ * HeadlessBattleView - A BattleView with no window at all
+ *
+ * Actions come from an IntSupplier instead of buttons, and pause() returns
+ * immediately, so a battle runs as fast as the CPU allows. Works with
+ * java.awt.headless=true because it never touches Swing.
+ *
+ * With recording turned on, every message is kept so a battle can be
+ * checked or replayed afterwards.
+ */
+public class HeadlessBattleView implements BattleView {
+
+    private final IntSupplier actions;
+    private final boolean recording;
+    private final ArrayList<String> messages = new ArrayList<>();
+    private int playerHealth;
+    private int playerMaxHealth;
+
+    /**
+     * Constructor - a silent view
+     * @param actions Supplies the player's action (0-3) each time one is needed
+     */
+    public HeadlessBattleView(IntSupplier actions) {
+        this(actions, false);
+    }
+
+    /**
+     * Constructor
+     * @param actions Supplies the player's action (0-3) each time one is needed
+     * @param recording true to keep every displayed message
+     */
+    public HeadlessBattleView(IntSupplier actions, boolean recording) {
+        this.actions = actions;
+        this.recording = recording;
+    }
+
+    @Override
+    public void updateMonsters(ArrayList<Monster> monsters) {
+    }
+
+    @Override
+    public void updateMonsters(MonsterPool pool) {
+        // Nothing to draw, so skip building Monster views
+    }
+
+    @Override
+    public void updatePlayerHealth(int health) {
+        playerHealth = health;
+    }
+
+    @Override
+    public void setPlayerMaxHealth(int maxHealth) {
+        playerMaxHealth = maxHealth;
+    }
+
+    @Override
+    public void setPlayerSpeed(int speed) {
+    }
+
+    @Override
+    public void updateInventory(ArrayList<Item> items) {
+    }
+
+    @Override
+    public void updateInventory(Inventory inventory) {
+        // Nothing to draw, so skip building Items
+    }
+
+    @Override
+    public void displayMessage(String message) {
+        if (recording) {
+            messages.add(message);
+        }
+    }
+
+    @Override
+    public void setActionButtons(String[] labels) {
+        if (labels.length != 4) {
+            throw new IllegalArgumentException("Must provide exactly 4 button labels");
+        }
+    }
+
+    @Override
+    public int waitForAction() {
+        return actions.getAsInt();
+    }
+
+    @Override
+    public void highlightMonster(int index) {
+    }
+
+    @Override
+    public void flashMonster(int index, int milliseconds) {
+    }
+
+    @Override
+    public void setButtonsEnabled(boolean enabled) {
+    }
+
+    @Override
+    public void pause(int milliseconds) {
+    }
+
+    /**
+     * Get every recorded message (empty unless recording)
+     * @return The messages in the order they were displayed
+     */
+    public ArrayList<String> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Get the last player health the game displayed
+     * @return The health value
+     */
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    /**
+     * Get the last player max health the game displayed
+     * @return The max health value
+     */
+    public int getPlayerMaxHealth() {
+        return playerMaxHealth;
+    }
+}
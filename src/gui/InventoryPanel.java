@@ -1,32 +1,59 @@
 package gui;
 import javax.swing.*;
 
+import game.Inventory;
 import game.Item;
+import metrics.Metrics;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * InventoryPanel - Displays player's consumable items
  * 
  * Shows a vertical list of Item objects with their custom icons
+ * 
+ * The list is a JList: one shared renderer paints just the rows that are
+ * visible, and setItems() only tells the list model which items were
+ * added or removed, so a big inventory costs no new components per turn.
+ * 
+ * setStacks() shows an Inventory instead: one row per item type with its
+ * count, like "Health Potion ×12".
  */
 public class InventoryPanel extends JPanel {
     
-    private ArrayList<Item> items;
-    private JPanel itemListPanel;
+    // Rows are Items or Inventory.Stacks
+    private final DefaultListModel<Object> model = new DefaultListModel<>();
+    private final ArrayList<Object> shown = new ArrayList<>();  // same as model, quicker to compare
+    private final JList<Object> itemList = new JList<>(model) {
+        @Override
+        public void paint(Graphics g) {
+            long start = PaintTimer.start();
+            try {
+                super.paint(g);
+            } finally {
+                PaintTimer.stop(Metrics.PAINT_INVENTORY, start);
+            }
+        }
+    };
+    private final CardLayout cards = new CardLayout();
+    private final JPanel center = new JPanel(cards);
     
     // Visual constants
     private static final Color PANEL_BG = new Color(50, 50, 60);
     private static final Color ITEM_BG = new Color(70, 70, 80);
+    private static final Color ITEM_BORDER = new Color(100, 100, 120);
     private static final Font ITEM_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Font ICON_FONT = new Font("Serif", Font.PLAIN, 24);
+    private static final Font INDEX_FONT = new Font("Arial", Font.BOLD, 12);
     private static final int PANEL_WIDTH = 200;
+    private static final int ROW_HEIGHT = 55;
     
     /**
      * Constructor
      */
     public InventoryPanel() {
-        items = new ArrayList<>();
         setLayout(new BorderLayout());
         setPreferredSize(new Dimension(PANEL_WIDTH, 0));
         setBackground(PANEL_BG);
@@ -38,19 +65,30 @@ public class InventoryPanel extends JPanel {
         titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 5, 10, 5));
         add(titleLabel, BorderLayout.NORTH);
         
-        // Scrollable item list
-        itemListPanel = new JPanel();
-        itemListPanel.setLayout(new BoxLayout(itemListPanel, BoxLayout.Y_AXIS));
-        itemListPanel.setBackground(PANEL_BG);
+        // Scrollable item list (fixed row size, so rows never need measuring)
+        itemList.setBackground(PANEL_BG);
+        itemList.setCellRenderer(new ItemRenderer());
+        itemList.setFixedCellHeight(ROW_HEIGHT);
+        itemList.setFixedCellWidth(PANEL_WIDTH - 20);
+        itemList.setFocusable(false);
+        itemList.setSelectionModel(new NoSelectionModel());
         
-        JScrollPane scrollPane = new JScrollPane(itemListPanel);
+        JScrollPane scrollPane = new JScrollPane(itemList);
         scrollPane.setBorder(null);
         scrollPane.setBackground(PANEL_BG);
         scrollPane.getViewport().setBackground(PANEL_BG);
-        add(scrollPane, BorderLayout.CENTER);
         
-        // Initial empty message
-        showEmptyMessage();
+        // Empty inventory message
+        JLabel emptyLabel = new JLabel("No items", SwingConstants.CENTER);
+        emptyLabel.setFont(ITEM_FONT);
+        emptyLabel.setForeground(Color.GRAY);
+        
+        center.setBackground(PANEL_BG);
+        center.add(scrollPane, "list");
+        center.add(emptyLabel, "empty");
+        add(center, BorderLayout.CENTER);
+        
+        cards.show(center, "empty");
     }
     
     /**
@@ -58,75 +96,161 @@ public class InventoryPanel extends JPanel {
      * @param items List of Item objects
      */
     public void setItems(ArrayList<Item> items) {
-        this.items = items;
-        refreshDisplay();
+        refreshDisplay(items);
+    }
+    
+    /**
+     * Set the stacked items to display
+     * @param stacks One stack per item type (from Inventory.getStacks())
+     */
+    public void setStacks(List<Inventory.Stack> stacks) {
+        refreshDisplay(stacks);
+    }
+    
+    /**
+     * Show a list of Items or Inventory.Stacks (for the UpdateDispatcher)
+     */
+    void setRows(List<?> rows) {
+        refreshDisplay(rows);
     }
     
     /**
      * Refresh the item display
+     *
+     * Rows that are the same at the start and end of both lists are kept;
+     * only the part in between is replaced. Using the first item, for
+     * example, is a single remove (or a single change for a stack).
      */
-    private void refreshDisplay() {
-        itemListPanel.removeAll();
+    private void refreshDisplay(List<?> rows) {
+        int newSize = rows == null ? 0 : rows.size();
+        int oldSize = shown.size();
         
-        if (items == null || items.isEmpty()) {
-            showEmptyMessage();
-        } else {
-            // Create a panel for each item (no grouping/stacking)
-            for (int i = 0; i < items.size(); i++) {
-                itemListPanel.add(createItemPanel(items.get(i), i));
-                itemListPanel.add(Box.createVerticalStrut(5));
-            }
+        // Common start and end
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && sameRow(shown.get(prefix), rows.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && sameRow(shown.get(oldSize - 1 - suffix), rows.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+        
+        // Replace what is left in the middle
+        if (oldSize - suffix > prefix) {
+            model.removeRange(prefix, oldSize - suffix - 1);
+            shown.subList(prefix, oldSize - suffix).clear();
+        }
+        if (newSize - suffix > prefix) {
+            List<?> added = rows.subList(prefix, newSize - suffix);
+            shown.addAll(prefix, added);
+            model.addAll(prefix, added);  // one event for the whole block
+        }
+        
+        // Slot numbers below the change moved
+        if (oldSize != newSize && suffix > 0) {
+            itemList.repaint();
         }
         
-        itemListPanel.revalidate();
-        itemListPanel.repaint();
+        cards.show(center, newSize == 0 ? "empty" : "list");
     }
     
     /**
-     * Show empty inventory message
+     * Check if a row would look the same as the one already shown
      */
-    private void showEmptyMessage() {
-        JLabel emptyLabel = new JLabel("No items", SwingConstants.CENTER);
-        emptyLabel.setFont(ITEM_FONT);
-        emptyLabel.setForeground(Color.GRAY);
-        emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        itemListPanel.add(Box.createVerticalGlue());
-        itemListPanel.add(emptyLabel);
-        itemListPanel.add(Box.createVerticalGlue());
+    private static boolean sameRow(Object shownRow, Object newRow) {
+        if (shownRow == newRow) return true;
+        if (shownRow instanceof Inventory.Stack && newRow instanceof Inventory.Stack) {
+            Inventory.Stack a = (Inventory.Stack) shownRow;
+            Inventory.Stack b = (Inventory.Stack) newRow;
+            return a.getType() == b.getType() && a.getCount() == b.getCount();
+        }
+        return false;
+    }
+    
+    @Override
+    public void paint(Graphics g) {
+        long start = PaintTimer.start();
+        try {
+            super.paint(g);
+        } finally {
+            PaintTimer.stop(Metrics.PAINT_INVENTORY, start);
+        }
     }
     
     /**
-     * Create a panel for a single item
-     * @param item The Item object
-     * @param index The item index in the inventory
-     * @return The item panel
+     * ItemRenderer - Paints every row with the same few components
      */
-    private JPanel createItemPanel(Item item, int index) {
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.setBackground(ITEM_BG);
-        panel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(100, 100, 120), 1),
-            BorderFactory.createEmptyBorder(8, 10, 8, 10)
-        ));
-        panel.setMaximumSize(new Dimension(PANEL_WIDTH - 20, 50));
+    private static class ItemRenderer extends JPanel implements ListCellRenderer<Object> {
+        private final JLabel iconLabel = new JLabel();
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel indexLabel = new JLabel();
         
-        // Item icon from the Item object
-        JLabel iconLabel = new JLabel(item.getIcon());
-        iconLabel.setFont(new Font("Serif", Font.PLAIN, 24));
-        panel.add(iconLabel, BorderLayout.WEST);
+        ItemRenderer() {
+            super(new BorderLayout(5, 0));
+            setBackground(ITEM_BG);
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, 5, 0, PANEL_BG),  // gap between rows
+                BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(ITEM_BORDER, 1),
+                    BorderFactory.createEmptyBorder(8, 10, 8, 10)
+                )
+            ));
+            
+            // Item icon
+            iconLabel.setFont(ICON_FONT);
+            add(iconLabel, BorderLayout.WEST);
+            
+            // Item name
+            nameLabel.setFont(ITEM_FONT);
+            nameLabel.setForeground(Color.WHITE);
+            add(nameLabel, BorderLayout.CENTER);
+            
+            // Item index/slot number
+            indexLabel.setFont(INDEX_FONT);
+            indexLabel.setForeground(Color.CYAN);
+            add(indexLabel, BorderLayout.EAST);
+        }
         
-        // Item name
-        JLabel nameLabel = new JLabel(item.getName());
-        nameLabel.setFont(ITEM_FONT);
-        nameLabel.setForeground(Color.WHITE);
-        panel.add(nameLabel, BorderLayout.CENTER);
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object row,
+                                                      int index, boolean selected, boolean focused) {
+            if (row instanceof Inventory.Stack) {
+                Inventory.Stack stack = (Inventory.Stack) row;
+                iconLabel.setText(stack.getType().getIcon());
+                nameLabel.setText(stack.getCount() > 1
+                    ? stack.getType().getName() + " ×" + stack.getCount()
+                    : stack.getType().getName());
+            } else {
+                Item item = (Item) row;
+                iconLabel.setText(item.getIcon());
+                nameLabel.setText(item.getName());
+            }
+            indexLabel.setText("[" + index + "]");
+            return this;
+        }
         
-        // Item index/slot number
-        JLabel indexLabel = new JLabel("[" + index + "]");
-        indexLabel.setFont(new Font("Arial", Font.BOLD, 12));
-        indexLabel.setForeground(Color.CYAN);
-        panel.add(indexLabel, BorderLayout.EAST);
+        @Override
+        public void validate() {
+            // validate() does nothing without a window (OffscreenBattleView), so lay the row out directly
+            if (isDisplayable()) {
+                super.validate();
+            } else {
+                doLayout();
+            }
+        }
+    }
+    
+    /**
+     * NoSelectionModel - The list is only for looking at, so nothing is ever selected
+     */
+    private static class NoSelectionModel extends DefaultListSelectionModel {
+        @Override
+        public void setSelectionInterval(int index0, int index1) {
+        }
         
-        return panel;
+        @Override
+        public void addSelectionInterval(int index0, int index1) {
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,17 @@
 package gui;
 import javax.swing.*;
 
+import game.Inventory;
 import game.Item;
 import game.Monster;
+import metrics.Metrics;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 /**
  * MonsterBattleGUI - A simple display API for monster battle games
@@ -19,14 +24,29 @@ import java.util.ArrayList;
  * - updatePlayerHealth(int) - Show player health
  * - setPlayerSpeed(int) - Set player speed stat
  * - updateInventory(ArrayList<Item>) - Show items
+ * - updateInventory(Inventory) - Show stacked items ("Health Potion ×12")
  * - displayMessage(String) - Show a message
  * - setActionButtons(String[]) - Label the 4 buttons
  * - waitForAction() - Wait for button click, returns 0-3
+ * - waitForAction(Duration) - Same, but gives up after a timeout (returns -1)
  * - highlightMonster(int) - Highlight a monster briefly
+ * - flashMonster(int, int) - Highlight a monster, clearing it later by itself
+ * 
+ * The same methods are listed in BattleView, so game code can swap this
+ * window for a HeadlessBattleView, or for an OffscreenBattleView that
+ * draws the same screen into images.
+ * 
+ * Display updates are batched: however many calls a turn makes, the
+ * window applies the latest values once per frame.
+ * 
+ * Effects and pause() run on an AnimationTimeline with a speed multiplier:
+ * setAnimationSpeed(AnimationTimeline.TURBO) (or -Dmonsterbattle.speed=turbo)
+ * drops every delay so automated games run at full speed.
  */
-public class MonsterBattleGUI extends JFrame {
+public class MonsterBattleGUI extends JFrame implements BattleView {
     
     // GUI Components
+    private BattleScreen screen;
     private MonsterDisplayPanel monsterPanel;
     private ActionButtonPanel buttonPanel;
     private InventoryPanel inventoryPanel;
@@ -34,9 +54,14 @@ public class MonsterBattleGUI extends JFrame {
     private PlayerStatusPanel playerStatusPanel;
     
     // For button clicks
-    private int selectedAction = -1;
-    private boolean waitingForInput = false;
-    private final Object actionLock = new Object();
+    private final ActionChannel actions = new ActionChannel();
+    
+    // Batches display changes into one pass per frame on the event thread
+    private UpdateDispatcher updates;
+    
+    // Timed effects and pauses, with the speed multiplier
+    private final AnimationTimeline timeline = new AnimationTimeline();
+    private final AtomicInteger flashes = new AtomicInteger();
     
     /**
      * Constructor
@@ -44,10 +69,25 @@ public class MonsterBattleGUI extends JFrame {
      */
     public MonsterBattleGUI(String title) {
         super(title);
+        Metrics.register();
+        Long stallMillis = Long.getLong("monsterbattle.stallMillis");
+        if (stallMillis != null) {
+            setStallWatchdog(Duration.ofMillis(stallMillis));
+        }
+        String speed = System.getProperty("monsterbattle.speed");
+        if (speed != null) {
+            try {
+                setAnimationSpeed(speed.equals("turbo") ? AnimationTimeline.TURBO : Double.parseDouble(speed));
+            } catch (IllegalArgumentException e) {  // NumberFormatException is one too
+                System.err.println("MonsterBattleGUI: ignoring monsterbattle.speed=" + speed
+                    + " (use a number above 0 or turbo): " + e);
+                setAnimationSpeed(1);
+            }
+        }
         initializeComponents();
         layoutComponents();
         
-        setSize(1000, 800);
+        setSize(BattleScreen.WINDOW_WIDTH, BattleScreen.WINDOW_HEIGHT);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setResizable(false);
@@ -58,35 +98,21 @@ public class MonsterBattleGUI extends JFrame {
      * Initialize components
      */
     private void initializeComponents() {
-        monsterPanel = new MonsterDisplayPanel();
-        buttonPanel = new ActionButtonPanel(e -> handleButtonClick(e));
-        inventoryPanel = new InventoryPanel();
-        messagePanel = new MessagePanel();
-        playerStatusPanel = new PlayerStatusPanel(100);
+        screen = new BattleScreen(e -> handleButtonClick(e));
+        monsterPanel = screen.monsterPanel;
+        buttonPanel = screen.buttonPanel;
+        inventoryPanel = screen.inventoryPanel;
+        messagePanel = screen.messagePanel;
+        playerStatusPanel = screen.playerStatusPanel;
+        updates = new UpdateDispatcher(monsterPanel, playerStatusPanel,
+            inventoryPanel, messagePanel, buttonPanel);
     }
     
     /**
-     * Layout components
+     * Layout components (the layout itself is in BattleScreen, shared with OffscreenBattleView)
      */
     private void layoutComponents() {
-        setLayout(new BorderLayout(10, 10));
-        
-        // Center: Monsters
-        add(monsterPanel, BorderLayout.CENTER);
-        
-        // Bottom: Player status, buttons, messages
-        JPanel bottomPanel = new JPanel(new BorderLayout(10, 10));
-        JPanel controlPanel = new JPanel(new BorderLayout(10, 10));
-        controlPanel.add(playerStatusPanel, BorderLayout.NORTH);
-        controlPanel.add(buttonPanel, BorderLayout.CENTER);
-        bottomPanel.add(controlPanel, BorderLayout.CENTER);
-        bottomPanel.add(messagePanel, BorderLayout.SOUTH);
-        add(bottomPanel, BorderLayout.SOUTH);
-        
-        // Right: Inventory
-        add(inventoryPanel, BorderLayout.EAST);
-        
-        ((JPanel)getContentPane()).setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        setContentPane(screen);
     }
     
     // ==================== STUDENT API METHODS ====================
@@ -95,59 +121,75 @@ public class MonsterBattleGUI extends JFrame {
      * Update the monster display
      * @param monsters Your list of monsters
      */
+    @Override
     public void updateMonsters(ArrayList<Monster> monsters) {
-        SwingUtilities.invokeLater(() -> monsterPanel.setMonsters(monsters));
+        updates.updateMonsters(monsters);
     }
     
     /**
      * Update player's current health
      * @param health Current health value
      */
+    @Override
     public void updatePlayerHealth(int health) {
-        SwingUtilities.invokeLater(() -> playerStatusPanel.setHealth(health));
+        updates.updatePlayerHealth(health);
     }
     
     /**
      * Set player's maximum health (call once at start)
      * @param maxHealth Maximum health value
      */
+    @Override
     public void setPlayerMaxHealth(int maxHealth) {
-        SwingUtilities.invokeLater(() -> playerStatusPanel.setMaxHealth(maxHealth));
+        updates.setPlayerMaxHealth(maxHealth);
     }
     
     /**
      * Set player's speed stat
      * @param speed The speed value
      */
+    @Override
     public void setPlayerSpeed(int speed) {
-        SwingUtilities.invokeLater(() -> playerStatusPanel.setSpeed(speed));
+        updates.setPlayerSpeed(speed);
     }
     
     /**
      * Update the inventory display
      * @param items Your list of items
      */
+    @Override
     public void updateInventory(ArrayList<Item> items) {
-        SwingUtilities.invokeLater(() -> inventoryPanel.setItems(items));
+        updates.updateInventory(items);
+    }
+    
+    /**
+     * Update the inventory display with one row per item type
+     * @param inventory Your inventory
+     */
+    @Override
+    public void updateInventory(Inventory inventory) {
+        updates.updateStacks(inventory.getStacks());
     }
     
     /**
      * Display a message to the player
      * @param message The message text
      */
+    @Override
     public void displayMessage(String message) {
-        SwingUtilities.invokeLater(() -> messagePanel.setMessage(message));
+        updates.displayMessage(message);
     }
     
     /**
      * Set button labels (4 buttons: indices 0-3)
      * @param labels Array of 4 button labels
      */
+    @Override
     public void setActionButtons(String[] labels) {
         if (labels.length != 4) {
             throw new IllegalArgumentException("Must provide exactly 4 button labels");
         }
-        SwingUtilities.invokeLater(() -> buttonPanel.setButtonLabels(labels));
+        updates.setButtonLabels(labels);
     }
     
     /**
@@ -155,53 +197,160 @@ public class MonsterBattleGUI extends JFrame {
      * BLOCKS until a button is clicked!
      * @return Button index that was clicked (0-3)
      */
+    @Override
     public int waitForAction() {
-        selectedAction = -1;
-        waitingForInput = true;
-        
-        SwingUtilities.invokeLater(() -> buttonPanel.setEnabled(true));
-        
-        synchronized(actionLock) {
-            while (selectedAction == -1) {
-                try {
-                    actionLock.wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return -1;
-                }
-            }
+        updates.setButtonsEnabled(true);
+        long start = System.nanoTime();
+        int action = actions.await();
+        Metrics.ACTION_WAIT.recordSince(start);
+        finishWaiting();
+        return action;
+    }
+    
+    /**
+     * Wait for player to click a button, but not forever
+     * @param timeout How long to wait
+     * @return Button index that was clicked (0-3), or -1 if time ran out
+     */
+    @Override
+    public int waitForAction(Duration timeout) {
+        updates.setButtonsEnabled(true);
+        long start = System.nanoTime();
+        int action = actions.await(timeout);
+        Metrics.ACTION_WAIT.recordSince(start);
+        finishWaiting();
+        return action;
+    }
+    
+    /**
+     * Let clicks made between turns count for the next turns
+     * @param count How many early clicks to remember (0 = ignore them)
+     */
+    public void setTypeAhead(int count) {
+        actions.setTypeAhead(count);
+    }
+    
+    /**
+     * Wake up a waitForAction() call with -1 (e.g. when closing the game)
+     */
+    public void cancelWaiting() {
+        actions.cancel();
+    }
+    
+    /**
+     * Get the channel clicks go through (e.g. to feed actions from code)
+     * @return The action channel
+     */
+    public ActionChannel getActionChannel() {
+        return actions;
+    }
+    
+    /**
+     * Draw monster tiles from cached images (faster for big waves)
+     * @param enabled true to cache tile images
+     */
+    public void setTileImageCache(boolean enabled) {
+        onEventThread("MonsterBattleGUI.setTileImageCache()", () -> monsterPanel.setTileImageCache(enabled));
+    }
+    
+    /**
+     * Paint all monsters on one scrollable grid (for waves of hundreds or more)
+     * @param enabled true for the single-canvas grid, false for tiles
+     */
+    public void setCanvasMode(boolean enabled) {
+        onEventThread("MonsterBattleGUI.setCanvasMode()", () -> monsterPanel.setCanvasMode(enabled));
+    }
+    
+    /**
+     * Find out when the player clicks a monster (canvas mode only)
+     * @param listener Called on the event thread with the monster's index
+     */
+    public void setTargetListener(IntConsumer listener) {
+        onEventThread("MonsterBattleGUI.setTargetListener()", () -> monsterPanel.setTargetListener(listener));
+    }
+    
+    /**
+     * Log the event thread's stack when one event runs too long (see EdtWatchdog)
+     * @param threshold How long is too long (null to stop watching)
+     */
+    public void setStallWatchdog(Duration threshold) {
+        if (threshold == null) {
+            EdtWatchdog.uninstall();
+        } else {
+            EdtWatchdog.install(threshold);
         }
-        
-        waitingForInput = false;
-        return selectedAction;
+    }
+    
+    /**
+     * Run a task on the event thread, timing how long it waited in the queue
+     * @param name The API call it comes from (for EdtWatchdog)
+     */
+    private static void onEventThread(String name, Runnable task) {
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            Metrics.EDT_DELAY.recordSince(posted);
+            EdtWatchdog.activity(name);
+            task.run();
+        });
     }
     
     /**
      * Highlight a monster (useful for showing targets)
      * @param index Monster index to highlight, -1 to clear
      */
+    @Override
     public void highlightMonster(int index) {
-        SwingUtilities.invokeLater(() -> monsterPanel.highlightMonster(index));
+        flashes.incrementAndGet();  // ends any flash
+        updates.highlightMonster(index);
+    }
+    
+    /**
+     * Highlight a monster and clear it again later, without waiting
+     * @param index Monster index to highlight
+     * @param milliseconds How long the highlight stays (at normal speed)
+     */
+    @Override
+    public void flashMonster(int index, int milliseconds) {
+        int flash = flashes.incrementAndGet();
+        updates.flashMonster(index);
+        timeline.schedule(milliseconds, () -> {
+            // A newer highlight may have replaced this one
+            if (flashes.get() == flash) updates.endFlash();
+        });
+    }
+    
+    /**
+     * Set how fast effects and pauses play
+     * @param speed 1 = normal, 2 = twice as fast, AnimationTimeline.TURBO = no delays
+     */
+    public void setAnimationSpeed(double speed) {
+        timeline.setSpeed(speed);
+    }
+    
+    /**
+     * Get the timeline that runs effects and pauses
+     * @return The animation timeline
+     */
+    public AnimationTimeline getAnimationTimeline() {
+        return timeline;
     }
     
     /**
      * Enable/disable buttons
      * @param enabled true to enable, false to disable
      */
+    @Override
     public void setButtonsEnabled(boolean enabled) {
-        SwingUtilities.invokeLater(() -> buttonPanel.setEnabled(enabled));
+        updates.setButtonsEnabled(enabled);
     }
     
     /**
-     * Pause execution (useful for showing effects)
-     * @param milliseconds Time to pause
+     * Pause execution so the player can follow (scaled by the animation speed)
+     * @param milliseconds Time to pause at normal speed
      */
+    @Override
     public void pause(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        timeline.pause(milliseconds);
     }
     
     // ==================== INTERNAL METHODS ====================
@@ -210,14 +359,15 @@ public class MonsterBattleGUI extends JFrame {
      * Handle button clicks
      */
     private void handleButtonClick(ActionEvent e) {
-        if (!waitingForInput) return;
-        
-        selectedAction = Integer.parseInt(e.getActionCommand());
-        
-        SwingUtilities.invokeLater(() -> buttonPanel.setEnabled(false));
-        
-        synchronized(actionLock) {
-            actionLock.notifyAll();
+        actions.offer(Integer.parseInt(e.getActionCommand()));
+    }
+    
+    /**
+     * Disable the buttons after a wait, unless early clicks are allowed
+     */
+    private void finishWaiting() {
+        if (actions.getTypeAhead() == 0) {
+            updates.setButtonsEnabled(false);
         }
     }
 }
\ No newline at end of file
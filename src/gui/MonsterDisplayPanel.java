@@ -2,25 +2,48 @@ package gui;
 import javax.swing.*;
 
 import game.Monster;
+import metrics.Metrics;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.function.IntConsumer;
 
 /**
  * MonsterDisplayPanel - Displays monster tiles in a responsive grid
  * 
  * This panel automatically arranges monsters in rows and columns,
  * showing their health, damage, and other stats visually.
+ * 
+ * Tiles are kept between updates: only labels whose values changed are
+ * updated, and the grid is only rebuilt when the number of monsters changes.
+ * 
+ * With setTileImageCache(true) each tile is drawn once into an image and
+ * repaints just copy that image, until the tile's monster or highlight
+ * changes. Worth it for big grids that repaint often.
+ * 
+ * With setCanvasMode(true) there are no tiles at all: one scrollable
+ * MonsterGridCanvas paints every monster, which scales to thousands of
+ * monsters and lets the player click a monster to target it.
  */
 public class MonsterDisplayPanel extends JPanel {
     
     private ArrayList<Monster> monsters;
     private ArrayList<MonsterTile> tiles;
     private int highlightedIndex = -1;
+    private boolean showingEmptyMessage = false;
+    private boolean tileImageCache = false;
+    
+    // Canvas mode: one component paints the whole grid
+    private boolean canvasMode = false;
+    private final MonsterGridCanvas canvas = new MonsterGridCanvas();
+    private JScrollPane canvasScroll;
     
     // Visual constants
     private static final Color BACKGROUND_COLOR = new Color(40, 40, 50);
     private static final int TILE_SPACING = 10;
+    private static final Font NUMBER_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font SPECIAL_FONT = new Font("Arial", Font.ITALIC, 11);
     
     /**
      * Constructor
@@ -42,7 +65,12 @@ public class MonsterDisplayPanel extends JPanel {
     public void setMonsters(ArrayList<Monster> monsters) {
         this.monsters = monsters;
         this.highlightedIndex = -1;
-        createTiles();
+        if (canvasMode) {
+            canvas.setMonsters(monsters);
+            canvas.highlightMonster(-1);
+        } else {
+            updateTiles();
+        }
     }
     
     /**
@@ -51,23 +79,114 @@ public class MonsterDisplayPanel extends JPanel {
      */
     public void highlightMonster(int index) {
         this.highlightedIndex = index;
-        repaint();
+        if (canvasMode) {
+            canvas.highlightMonster(index);
+        } else {
+            repaint();
+        }
     }
     
     /**
-     * Create tiles for all monsters
+     * Get the highlighted monster
+     * @return The highlighted index (-1 for none)
      */
-    private void createTiles() {
+    int getHighlightedIndex() {
+        return highlightedIndex;
+    }
+    
+    /**
+     * Switch between one tile per monster and a single painted grid
+     * @param enabled true to paint all monsters on one scrollable canvas
+     */
+    public void setCanvasMode(boolean enabled) {
+        if (canvasMode == enabled) return;
+        canvasMode = enabled;
         removeAll();
         tiles.clear();
+        showingEmptyMessage = false;
         
-        if (monsters == null || monsters.isEmpty()) {
-            add(new JLabel("No monsters to display"));
+        if (enabled) {
+            if (canvasScroll == null) {
+                canvasScroll = new JScrollPane(canvas);
+                canvasScroll.setBorder(null);
+                canvasScroll.getViewport().setBackground(BACKGROUND_COLOR);
+            }
+            setLayout(new BorderLayout());
+            add(canvasScroll, BorderLayout.CENTER);
+            canvas.setMonsters(monsters);
+            canvas.highlightMonster(highlightedIndex);
             revalidate();
             repaint();
+        } else {
+            updateTiles();
+        }
+    }
+    
+    /**
+     * Check if the panel is in canvas mode
+     * @return true if one canvas paints all monsters
+     */
+    public boolean isCanvasMode() {
+        return canvasMode;
+    }
+    
+    /**
+     * Set who hears about monsters clicked in canvas mode
+     * @param listener Gets the clicked monster's index (null for nobody)
+     */
+    public void setTargetListener(IntConsumer listener) {
+        canvas.setTargetListener(listener);
+    }
+    
+    /**
+     * Turn cached tile images on or off
+     * @param enabled true to draw each tile once and copy it on repaint
+     */
+    public void setTileImageCache(boolean enabled) {
+        if (tileImageCache != enabled) {
+            tileImageCache = enabled;
+            for (MonsterTile tile : tiles) {
+                tile.dropImage();
+            }
+            repaint();
+        }
+    }
+    
+    /**
+     * Check if cached tile images are on
+     * @return true if tiles are drawn from cached images
+     */
+    public boolean isTileImageCache() {
+        return tileImageCache;
+    }
+    
+    /**
+     * Bring the tiles up to date with the monsters
+     */
+    private void updateTiles() {
+        if (monsters == null || monsters.isEmpty()) {
+            showEmptyMessage();
+            return;
+        }
+        
+        // Same number of monsters: just refresh what changed
+        if (!showingEmptyMessage && tiles.size() == monsters.size()) {
+            for (int i = 0; i < tiles.size(); i++) {
+                tiles.get(i).update(monsters.get(i));
+            }
             return;
         }
         
+        relayoutTiles();
+    }
+    
+    /**
+     * Rebuild the grid for a new number of monsters (reusing existing tiles)
+     */
+    private void relayoutTiles() {
+        removeAll();
+        showingEmptyMessage = false;
+        
         // Determine grid layout
         int monsterCount = monsters.size();
         int cols = (int) Math.ceil(Math.sqrt(monsterCount));
@@ -75,10 +194,17 @@ public class MonsterDisplayPanel extends JPanel {
         
         setLayout(new GridLayout(rows, cols, TILE_SPACING, TILE_SPACING));
         
-        // Create a tile for each monster
-        for (int i = 0; i < monsters.size(); i++) {
-            MonsterTile tile = new MonsterTile(monsters.get(i), i);
-            tiles.add(tile);
+        // Drop tiles we no longer need, update the rest, then add new ones
+        while (tiles.size() > monsterCount) {
+            tiles.remove(tiles.size() - 1);
+        }
+        for (int i = 0; i < tiles.size(); i++) {
+            tiles.get(i).update(monsters.get(i));
+        }
+        for (int i = tiles.size(); i < monsterCount; i++) {
+            tiles.add(new MonsterTile(monsters.get(i), i));
+        }
+        for (MonsterTile tile : tiles) {
             add(tile);
         }
         
@@ -86,9 +212,33 @@ public class MonsterDisplayPanel extends JPanel {
         repaint();
     }
     
+    /**
+     * Show a message instead of tiles
+     */
+    private void showEmptyMessage() {
+        if (showingEmptyMessage) return;
+        removeAll();
+        tiles.clear();
+        showingEmptyMessage = true;
+        add(new JLabel("No monsters to display"));
+        revalidate();
+        repaint();
+    }
+    
+    @Override
+    public void paint(Graphics g) {
+        long start = PaintTimer.start();
+        try {
+            super.paint(g);
+        } finally {
+            PaintTimer.stop(Metrics.PAINT_MONSTERS, start);
+        }
+    }
+    
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (canvasMode) return;
         
         // Update highlighting
         for (int i = 0; i < tiles.size(); i++) {
@@ -104,6 +254,27 @@ public class MonsterDisplayPanel extends JPanel {
         private int index;
         private boolean highlighted = false;
         
+        // Labels, kept so update() can change just their text
+        private JLabel specialLabel;
+        private JLabel healthLabel;
+        private JLabel damageLabel;
+        private JLabel speedLabel;
+        private HealthBar healthBar;
+        
+        // The values currently shown
+        private int shownHealth;
+        private double shownDamage;
+        private int shownSpeed;
+        private String shownSpecial;
+        
+        // Cached picture of the tile and what it showed when drawn
+        private BufferedImage image;
+        private int imageHealth;
+        private double imageDamage;
+        private int imageSpeed;
+        private String imageSpecial;
+        private boolean imageHighlighted;
+        
         // Colors
         private static final Color TILE_BG = new Color(60, 60, 70);
         private static final Color TILE_BORDER = new Color(100, 100, 120);
@@ -113,13 +284,17 @@ public class MonsterDisplayPanel extends JPanel {
         private static final Color HEALTH_BAR_FULL = new Color(50, 205, 50);
         private static final Color HEALTH_BAR_MED = new Color(255, 165, 0);
         private static final Color HEALTH_BAR_LOW = new Color(220, 20, 60);
+        private static final javax.swing.border.Border NORMAL_BORDER =
+            BorderFactory.createLineBorder(TILE_BORDER, 2);
+        private static final javax.swing.border.Border HIGHLIGHT_BORDER =
+            BorderFactory.createLineBorder(HIGHLIGHT_COLOR, 4);
         
         public MonsterTile(Monster monster, int index) {
             this.monster = monster;
             this.index = index;
             setLayout(new BorderLayout(5, 5));
             setBackground(monster.health() > 0 ? TILE_BG : DEAD_COLOR);
-            setBorder(BorderFactory.createLineBorder(TILE_BORDER, 2));
+            setBorder(NORMAL_BORDER);
             createLayout();
         }
         
@@ -130,32 +305,35 @@ public class MonsterDisplayPanel extends JPanel {
             infoPanel.setOpaque(false);
             
             // Monster number/name
-            JLabel numberLabel = new JLabel("Monster #" + index);
-            numberLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            JLabel numberLabel = new JLabel("Monster #" + (index + 1));  // players count from 1
+            numberLabel.setFont(NUMBER_FONT);
             numberLabel.setForeground(Color.WHITE);
             numberLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
             // Stats
-            JLabel healthLabel = new JLabel("HP: " + monster.health());
+            shownHealth = monster.health();
+            healthLabel = new JLabel("HP: " + shownHealth);
             healthLabel.setForeground(Color.WHITE);
             healthLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
-            JLabel damageLabel = new JLabel("DMG: " + monster.damage());
+            shownDamage = monster.damage();
+            damageLabel = new JLabel("DMG: " + shownDamage);
             damageLabel.setForeground(Color.ORANGE);
             damageLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
-            JLabel speedLabel = new JLabel("SPD: " + monster.speed());
+            shownSpeed = monster.speed();
+            speedLabel = new JLabel("SPD: " + shownSpeed);
             speedLabel.setForeground(Color.CYAN);
             speedLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             
-            // Special ability if exists
-            if (!monster.special().isEmpty()) {
-                JLabel specialLabel = new JLabel("★ " + monster.special());
-                specialLabel.setForeground(new Color(255, 215, 0));
-                specialLabel.setFont(new Font("Arial", Font.ITALIC, 11));
-                specialLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-                infoPanel.add(specialLabel);
-            }
+            // Special ability (hidden if the monster has none)
+            shownSpecial = monster.special();
+            specialLabel = new JLabel("★ " + shownSpecial);
+            specialLabel.setForeground(HIGHLIGHT_COLOR);
+            specialLabel.setFont(SPECIAL_FONT);
+            specialLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+            specialLabel.setVisible(!shownSpecial.isEmpty());
+            infoPanel.add(specialLabel);
             
             infoPanel.add(numberLabel);
             infoPanel.add(Box.createVerticalStrut(5));
@@ -166,19 +344,114 @@ public class MonsterDisplayPanel extends JPanel {
             add(infoPanel, BorderLayout.CENTER);
             
             // Health bar at bottom
-            add(new HealthBar(), BorderLayout.SOUTH);
+            healthBar = new HealthBar();
+            add(healthBar, BorderLayout.SOUTH);
+        }
+        
+        /**
+         * Show a (possibly different) monster, changing only what differs
+         * @param monster The monster for this tile
+         */
+        public void update(Monster monster) {
+            this.monster = monster;
+            
+            int health = monster.health();
+            if (health != shownHealth) {
+                boolean wasAlive = shownHealth > 0;
+                shownHealth = health;
+                healthLabel.setText("HP: " + health);
+                healthBar.repaint();
+                if (wasAlive != health > 0) {
+                    setBackground(health > 0 ? TILE_BG : DEAD_COLOR);
+                }
+            }
+            
+            double damage = monster.damage();
+            if (damage != shownDamage) {
+                shownDamage = damage;
+                damageLabel.setText("DMG: " + damage);
+            }
+            
+            int speed = monster.speed();
+            if (speed != shownSpeed) {
+                shownSpeed = speed;
+                speedLabel.setText("SPD: " + speed);
+            }
+            
+            String special = monster.special();
+            if (!special.equals(shownSpecial)) {
+                shownSpecial = special;
+                specialLabel.setText("★ " + special);
+                specialLabel.setVisible(!special.isEmpty());
+            }
         }
         
         public void setHighlighted(boolean highlighted) {
             if (this.highlighted != highlighted) {
                 this.highlighted = highlighted;
-                setBorder(BorderFactory.createLineBorder(
-                    highlighted ? HIGHLIGHT_COLOR : TILE_BORDER, 
-                    highlighted ? 4 : 2));
+                setBorder(highlighted ? HIGHLIGHT_BORDER : NORMAL_BORDER);
                 repaint();
             }
         }
         
+        @Override
+        public void paint(Graphics g) {
+            long start = PaintTimer.start();
+            try {
+                if (!tileImageCache) {
+                    super.paint(g);
+                    return;
+                }
+                if (!imageIsCurrent()) {
+                    drawImage();
+                }
+                g.drawImage(image, 0, 0, null);
+            } finally {
+                PaintTimer.stop(Metrics.PAINT_MONSTERS, start);
+            }
+        }
+        
+        /**
+         * Check if the cached image still shows this tile as it is now
+         */
+        private boolean imageIsCurrent() {
+            return image != null
+                && image.getWidth() == getWidth()
+                && image.getHeight() == getHeight()
+                && imageHealth == shownHealth
+                && imageDamage == shownDamage
+                && imageSpeed == shownSpeed
+                && imageSpecial.equals(shownSpecial)
+                && imageHighlighted == highlighted;
+        }
+        
+        /**
+         * Draw the tile into its cached image (reusing the image if the size fits)
+         */
+        private void drawImage() {
+            int width = Math.max(1, getWidth());
+            int height = Math.max(1, getHeight());
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+            Graphics2D g2d = image.createGraphics();
+            super.paint(g2d);
+            g2d.dispose();
+            
+            imageHealth = shownHealth;
+            imageDamage = shownDamage;
+            imageSpeed = shownSpeed;
+            imageSpecial = shownSpecial;
+            imageHighlighted = highlighted;
+        }
+        
+        /**
+         * Forget the cached image
+         */
+        public void dropImage() {
+            image = null;
+        }
+        
         /**
          * Visual health bar
          */
@@ -190,6 +463,16 @@ public class MonsterDisplayPanel extends JPanel {
                 setBackground(HEALTH_BAR_BG);
             }
             
+            @Override
+            public void paint(Graphics g) {
+                long start = PaintTimer.start();
+                try {
+                    super.paint(g);
+                } finally {
+                    PaintTimer.stop(Metrics.PAINT_MONSTERS, start);
+                }
+            }
+            
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
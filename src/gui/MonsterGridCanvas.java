@@ -0,0 +1,381 @@
+package gui;
+import javax.swing.*;
+
+import game.Monster;
+import metrics.Metrics;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * MonsterGridCanvas - Draws a whole wave of monsters on one component
+ *
+ * MonsterDisplayPanel normally makes a panel with five labels per monster,
+ * which gets slow and heavy past a few hundred monsters. The canvas keeps
+ * only the numbers it shows (in plain arrays) and paints fixed-size cells
+ * itself, skipping every cell outside the visible area, so it belongs in a
+ * JScrollPane and handles thousands of monsters.
+ *
+ * Each cell's labels ("#12", "HP 40", ...) are built the first time the
+ * cell is painted and kept until that monster's stats change, so painting
+ * a screenful of cells makes no new strings.
+ *
+ * Clicking a cell tells the target listener which monster was clicked.
+ * The cell is found by dividing the click position by the cell size.
+ *
+ * Like all Swing components, use it from the event thread only.
+ */
+public class MonsterGridCanvas extends JComponent implements Scrollable {
+
+    // Cell size (including the gap to the next cell)
+    public static final int CELL_WIDTH = 110;
+    public static final int CELL_HEIGHT = 64;
+    private static final int GAP = 4;
+    private static final int BAR_HEIGHT = 8;
+
+    // When more cells than this change at once, repaint everything
+    private static final int MAX_CELL_REPAINTS = 64;
+
+    // Colors and fonts
+    private static final Color BACKGROUND_COLOR = new Color(40, 40, 50);
+    private static final Color TILE_BG = new Color(60, 60, 70);
+    private static final Color TILE_BORDER = new Color(100, 100, 120);
+    private static final Color HIGHLIGHT_COLOR = new Color(255, 215, 0);
+    private static final Color DEAD_COLOR = new Color(80, 20, 20);
+    private static final Color HEALTH_BAR_BG = new Color(40, 40, 50);
+    private static final Color HEALTH_BAR_FULL = new Color(50, 205, 50);
+    private static final Color HEALTH_BAR_MED = new Color(255, 165, 0);
+    private static final Color HEALTH_BAR_LOW = new Color(220, 20, 60);
+    private static final Font NUMBER_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final Font STATS_FONT = new Font("Arial", Font.PLAIN, 11);
+
+    // What each cell shows
+    private int count = 0;
+    private int[] health = new int[0];
+    private double[] damage = new double[0];
+    private int[] speed = new int[0];
+    private String[] special = new String[0];
+    private int highlightedIndex = -1;
+
+    // Each cell's label text, made when first painted (null = not made yet)
+    private String[] numberText = new String[0];
+    private String[] specialText = new String[0];
+    private String[] healthText = new String[0];
+    private String[] damageText = new String[0];
+    private String[] speedText = new String[0];
+
+    // Reused for the paint clip
+    private final Rectangle clip = new Rectangle();
+
+    private IntConsumer targetListener;
+
+    /**
+     * Constructor
+     */
+    public MonsterGridCanvas() {
+        setOpaque(true);
+        setBackground(BACKGROUND_COLOR);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = indexAt(e.getX(), e.getY());
+                if (index >= 0 && targetListener != null) {
+                    targetListener.accept(index);
+                }
+            }
+        });
+    }
+
+    /**
+     * Show these monsters, repainting only the cells that changed
+     * @param monsters The list of monsters
+     */
+    public void setMonsters(ArrayList<Monster> monsters) {
+        int newCount = monsters == null ? 0 : monsters.size();
+        ensureCapacity(newCount);
+
+        boolean sizeChanged = newCount != count;
+        int changed = 0;
+        for (int i = 0; i < newCount; i++) {
+            Monster m = monsters.get(i);
+            int h = m.health();
+            double d = m.damage();
+            int s = m.speed();
+            String sp = m.special();
+            if (i >= count || h != health[i] || d != damage[i] || s != speed[i]
+                    || !sp.equals(special[i])) {
+                health[i] = h;
+                damage[i] = d;
+                speed[i] = s;
+                special[i] = sp;
+                forgetText(i);
+                if (!sizeChanged && ++changed <= MAX_CELL_REPAINTS) {
+                    repaintCell(i);
+                }
+            }
+        }
+        count = newCount;
+
+        if (sizeChanged) {
+            revalidate();
+            repaint();
+        } else if (changed > MAX_CELL_REPAINTS) {
+            repaint();
+        }
+    }
+
+    /**
+     * Highlight a monster's cell
+     * @param index The index to highlight (-1 for none)
+     */
+    public void highlightMonster(int index) {
+        if (index == highlightedIndex) return;
+        repaintCell(highlightedIndex);
+        highlightedIndex = index;
+        repaintCell(index);
+    }
+
+    /**
+     * Set who hears about clicked monsters
+     * @param listener Gets the clicked monster's index (null for nobody)
+     */
+    public void setTargetListener(IntConsumer listener) {
+        this.targetListener = listener;
+    }
+
+    /**
+     * Find the monster at a point
+     * @param x X in this component
+     * @param y Y in this component
+     * @return The monster's index, or -1 if there is none there
+     */
+    public int indexAt(int x, int y) {
+        if (x < 0 || y < 0) return -1;
+        int col = x / CELL_WIDTH;
+        int row = y / CELL_HEIGHT;
+        int cols = columns();
+        if (col >= cols) return -1;
+        int index = row * cols + col;
+        return index < count ? index : -1;
+    }
+
+    /**
+     * Get the area a monster's cell covers
+     * @param index The monster's index
+     * @return The cell's bounds in this component
+     */
+    public Rectangle cellBounds(int index) {
+        int cols = columns();
+        return new Rectangle((index % cols) * CELL_WIDTH, (index / cols) * CELL_HEIGHT,
+            CELL_WIDTH, CELL_HEIGHT);
+    }
+
+    /**
+     * Get how many monsters are shown
+     * @return The number of cells
+     */
+    public int getMonsterCount() {
+        return count;
+    }
+
+    // ==================== PAINTING ====================
+
+    @Override
+    public void paint(Graphics g) {
+        long start = PaintTimer.start();
+        try {
+            super.paint(g);
+        } finally {
+            PaintTimer.stop(Metrics.PAINT_MONSTERS, start);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        clip.setBounds(0, 0, getWidth(), getHeight());  // kept if there is no clip
+        g.getClipBounds(clip);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (count == 0) return;
+
+        // Only the rows and columns inside the clip
+        int cols = columns();
+        int firstRow = clip.y / CELL_HEIGHT;
+        int lastRow = (clip.y + clip.height - 1) / CELL_HEIGHT;
+        int firstCol = clip.x / CELL_WIDTH;
+        int lastCol = Math.min(cols - 1, (clip.x + clip.width - 1) / CELL_WIDTH);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = row * cols + col;
+                if (index >= count) return;
+                paintCell(g, index, col * CELL_WIDTH, row * CELL_HEIGHT);
+            }
+        }
+    }
+
+    /**
+     * Paint one monster's cell
+     */
+    private void paintCell(Graphics g, int index, int x, int y) {
+        int width = CELL_WIDTH - GAP;
+        int height = CELL_HEIGHT - GAP;
+        int h = health[index];
+
+        // Background and border
+        g.setColor(h > 0 ? TILE_BG : DEAD_COLOR);
+        g.fillRect(x, y, width, height);
+        if (index == highlightedIndex) {
+            g.setColor(HIGHLIGHT_COLOR);
+            g.drawRect(x, y, width - 1, height - 1);
+            g.drawRect(x + 1, y + 1, width - 3, height - 3);
+        } else {
+            g.setColor(TILE_BORDER);
+            g.drawRect(x, y, width - 1, height - 1);
+        }
+
+        if (healthText[index] == null) {
+            makeText(index);
+        }
+
+        // Number and special ability
+        g.setFont(NUMBER_FONT);
+        g.setColor(Color.WHITE);
+        g.drawString(numberText[index], x + 6, y + 15);
+        if (specialText[index] != null) {
+            g.setFont(STATS_FONT);
+            g.setColor(HIGHLIGHT_COLOR);
+            g.drawString(specialText[index], x + 40, y + 15);
+        }
+
+        // Stats
+        g.setFont(STATS_FONT);
+        g.setColor(Color.WHITE);
+        g.drawString(healthText[index], x + 6, y + 30);
+        g.setColor(Color.ORANGE);
+        g.drawString(damageText[index], x + 52, y + 30);
+        g.setColor(Color.CYAN);
+        g.drawString(speedText[index], x + 6, y + 44);
+
+        // Health bar (assume max 100)
+        int barX = x + 4;
+        int barY = y + height - BAR_HEIGHT - 4;
+        int barWidth = width - 8;
+        double healthPercent = Math.max(0, Math.min(100, h)) / 100.0;
+        g.setColor(HEALTH_BAR_BG);
+        g.fillRect(barX, barY, barWidth, BAR_HEIGHT);
+        if (healthPercent > 0.5) {
+            g.setColor(HEALTH_BAR_FULL);
+        } else if (healthPercent > 0.25) {
+            g.setColor(HEALTH_BAR_MED);
+        } else {
+            g.setColor(HEALTH_BAR_LOW);
+        }
+        g.fillRect(barX, barY, (int) (barWidth * healthPercent), BAR_HEIGHT);
+    }
+
+    /**
+     * Build a cell's labels from its stats
+     */
+    private void makeText(int index) {
+        if (numberText[index] == null) {
+            numberText[index] = "#" + (index + 1);  // never changes; players count from 1
+        }
+        specialText[index] = special[index].isEmpty() ? null : "★ " + special[index];
+        healthText[index] = "HP " + health[index];
+        damageText[index] = "DMG " + damage[index];
+        speedText[index] = "SPD " + speed[index];
+    }
+
+    /**
+     * Drop a cell's labels so the next paint rebuilds them
+     */
+    private void forgetText(int index) {
+        healthText[index] = null;
+    }
+
+    private void repaintCell(int index) {
+        if (index >= 0 && index < count) {
+            int cols = columns();
+            repaint((index % cols) * CELL_WIDTH, (index / cols) * CELL_HEIGHT, CELL_WIDTH, CELL_HEIGHT);
+        }
+    }
+
+    // ==================== SIZING AND SCROLLING ====================
+
+    /**
+     * How many cells fit across (at least one)
+     */
+    private int columns() {
+        return Math.max(1, availableWidth() / CELL_WIDTH);
+    }
+
+    private int availableWidth() {
+        // Inside a scroll pane the width follows the viewport
+        Container parent = getParent();
+        if (parent instanceof JViewport) {
+            return parent.getWidth();
+        }
+        return getWidth();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        int cols = columns();
+        int rows = (count + cols - 1) / cols;
+        return new Dimension(cols * CELL_WIDTH, rows * CELL_HEIGHT);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > health.length) {
+            int newLength = Math.max(capacity, health.length * 2);
+            health = Arrays.copyOf(health, newLength);
+            damage = Arrays.copyOf(damage, newLength);
+            speed = Arrays.copyOf(speed, newLength);
+            special = Arrays.copyOf(special, newLength);
+            numberText = Arrays.copyOf(numberText, newLength);
+            specialText = Arrays.copyOf(specialText, newLength);
+            healthText = Arrays.copyOf(healthText, newLength);
+            damageText = Arrays.copyOf(damageText, newLength);
+            speedText = Arrays.copyOf(speedText, newLength);
+        }
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? CELL_HEIGHT / 4 : CELL_WIDTH / 4;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        // A page, rounded down to whole rows
+        if (orientation == SwingConstants.VERTICAL) {
+            return Math.max(CELL_HEIGHT, visibleRect.height / CELL_HEIGHT * CELL_HEIGHT);
+        }
+        return Math.max(CELL_WIDTH, visibleRect.width / CELL_WIDTH * CELL_WIDTH);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        // Fill the viewport when there are only a few rows
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getHeight() > getPreferredSize().height;
+    }
+}
@@ -0,0 +1,190 @@
+package gui;
+import game.Inventory;
+import game.Item;
+import game.Monster;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.function.IntSupplier;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * OffscreenBattleView - The battle window's picture, with no window
+ *
+ * Draws the same BattleScreen as MonsterBattleGUI into a BufferedImage
+ * instead of onto the display, so it works with java.awt.headless=true
+ * (CI machines, servers). Use it for screenshots of any turn, golden-image
+ * tests, or highlight reels (see FrameExporter).
+ *
+ * The screen is never shown, so nothing goes through the Swing event
+ * thread: every call changes the panels right away on the calling thread.
+ * Each view has its own component tree, so different threads can each
+ * run their own view, but one view must stay on one thread at a time.
+ *
+ * Frames: render() draws the screen now. With a frame listener set, a
+ * frame is also drawn wherever the real window would hold still for the
+ * player: every pause(), and every flashMonster() while the monster is lit.
+ */
+public class OffscreenBattleView implements BattleView {
+
+    private final IntSupplier actions;
+    private final BattleScreen screen;
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private ObjIntConsumer<BufferedImage> frameListener;
+    private int frames;
+
+    /**
+     * Constructor - the same size as the battle window
+     * @param actions Supplies the player's action (0-3) each time one is needed
+     */
+    public OffscreenBattleView(IntSupplier actions) {
+        this(actions, BattleScreen.WINDOW_WIDTH, BattleScreen.WINDOW_HEIGHT);
+    }
+
+    /**
+     * Constructor
+     * @param actions Supplies the player's action (0-3) each time one is needed
+     * @param width Image width in pixels
+     * @param height Image height in pixels
+     */
+    public OffscreenBattleView(IntSupplier actions, int width, int height) {
+        this.actions = actions;
+        screen = new BattleScreen(e -> { });  // nobody can click
+        screen.setSize(width, height);
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    // ==================== FRAMES ====================
+
+    /**
+     * Get told about every frame the view draws by itself
+     * @param listener Gets the image and the frame number (0, 1, 2...); null for none
+     */
+    public void setFrameListener(ObjIntConsumer<BufferedImage> listener) {
+        this.frameListener = listener;
+    }
+
+    /**
+     * Draw the screen as it is now
+     *
+     * The same image is drawn into every time, so copy it (or write it out)
+     * before the next frame if you want to keep it.
+     * @return The picture of the screen
+     */
+    public BufferedImage render() {
+        screen.layOut();
+        screen.paint(graphics);
+        return image;
+    }
+
+    /**
+     * Take the next frame: draw it and pass it to the frame listener (if any)
+     */
+    public void captureFrame() {
+        if (frameListener != null) {
+            frameListener.accept(render(), frames);
+        }
+        frames++;
+    }
+
+    /**
+     * Get how many frames have been taken so far
+     * @return The frame count
+     */
+    public int getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Free the drawing resources (the view can't render after this)
+     */
+    public void dispose() {
+        graphics.dispose();
+    }
+
+    // ==================== BATTLEVIEW ====================
+
+    @Override
+    public void updateMonsters(ArrayList<Monster> monsters) {
+        screen.monsterPanel.setMonsters(monsters);
+    }
+
+    @Override
+    public void updatePlayerHealth(int health) {
+        screen.playerStatusPanel.setHealth(health);
+    }
+
+    @Override
+    public void setPlayerMaxHealth(int maxHealth) {
+        screen.playerStatusPanel.setMaxHealth(maxHealth);
+    }
+
+    @Override
+    public void setPlayerSpeed(int speed) {
+        screen.playerStatusPanel.setSpeed(speed);
+    }
+
+    @Override
+    public void updateInventory(ArrayList<Item> items) {
+        screen.inventoryPanel.setItems(items);
+    }
+
+    @Override
+    public void updateInventory(Inventory inventory) {
+        screen.inventoryPanel.setStacks(inventory.getStacks());
+    }
+
+    @Override
+    public void displayMessage(String message) {
+        screen.messagePanel.setMessage(message);
+    }
+
+    @Override
+    public void setActionButtons(String[] labels) {
+        if (labels.length != 4) {
+            throw new IllegalArgumentException("Must provide exactly 4 button labels");
+        }
+        screen.buttonPanel.setButtonLabels(labels);
+    }
+
+    @Override
+    public int waitForAction() {
+        screen.buttonPanel.setEnabled(true);
+        int action = actions.getAsInt();
+        screen.buttonPanel.setEnabled(false);
+        return action;
+    }
+
+    @Override
+    public void highlightMonster(int index) {
+        screen.monsterPanel.highlightMonster(index);
+    }
+
+    @Override
+    public void flashMonster(int index, int milliseconds) {
+        highlightMonster(index);
+        captureFrame();
+        highlightMonster(-1);
+    }
+
+    @Override
+    public void setButtonsEnabled(boolean enabled) {
+        screen.buttonPanel.setEnabled(enabled);
+    }
+
+    @Override
+    public void pause(int milliseconds) {
+        captureFrame();
+    }
+
+    /**
+     * Paint all monsters on one grid instead of tiles (for big waves)
+     * @param enabled true for the single-canvas grid, false for tiles
+     */
+    public void setCanvasMode(boolean enabled) {
+        screen.monsterPanel.setCanvasMode(enabled);
+    }
+}
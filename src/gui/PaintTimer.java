@@ -0,0 +1,42 @@
+package gui;
+import metrics.LatencyHistogram;
+
+/**
+ * PaintTimer - Times a panel's painting into its Metrics histogram
+ *
+ * When only a child changed (a health bar, one tile, the item list) Swing
+ * repaints just that child, without calling the panel's paint(). So the
+ * panel and those children all time themselves, and only the outermost
+ * paint on the stack is recorded: a full panel paint counts once, not once
+ * per child.
+ *
+ * The depth is kept per thread: a window paints on the event thread, but
+ * OffscreenBattleView screens paint on whatever thread renders them.
+ */
+final class PaintTimer {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private PaintTimer() {
+    }
+
+    /**
+     * Call first thing in paint()
+     * @return The start time, for stop()
+     */
+    static long start() {
+        DEPTH.get()[0]++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Call in a finally block at the end of paint()
+     * @param histogram Where the panel's paint times go
+     * @param start What start() returned
+     */
+    static void stop(LatencyHistogram histogram, long start) {
+        if (--DEPTH.get()[0] == 0) {
+            histogram.recordSince(start);
+        }
+    }
+}
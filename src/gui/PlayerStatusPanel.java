@@ -1,21 +1,37 @@
 package gui;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import metrics.Metrics;
 
 /**
  * PlayerStatusPanel - Displays the player's health and stats
  * 
  * Shows a large, prominent health bar for the player with visual indicators
+ * 
+ * Painting and health updates create no new objects: fonts, colors,
+ * gradients and the "0%".."100%" labels are all made once and reused.
+ * The "PLAYER" title, health and speed are drawn by one StatusLine rather
+ * than three labels in two panels (Swing copies the Graphics for every
+ * component it paints), and each "N / MAX HP" text is built once per value.
  */
 public class PlayerStatusPanel extends JPanel {
     
     private int currentHealth;
     private int maxHealth;
     private int speed;
-    private JLabel healthLabel;
-    private JLabel speedLabel;
+    private StatusLine statusLine;
     private HealthBar healthBar;
     
+    // What the status line currently shows (-1 = nothing yet)
+    private int shownHealth = -1;
+    private int shownMaxHealth = -1;
+    
+    // "N / MAX HP" for each health value, made the first time it is shown
+    // (null above MAX_CACHED_HEALTH, where the text is built every time)
+    private String[] healthText;
+    
     // Visual constants
     private static final Color PANEL_BG = new Color(50, 50, 60);
     private static final Color HEALTH_BAR_BG = new Color(40, 40, 50);
@@ -25,7 +41,21 @@ public class PlayerStatusPanel extends JPanel {
     private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 16);
     private static final Font HEALTH_FONT = new Font("Arial", Font.BOLD, 20);
     private static final Font SPEED_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font PERCENT_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Color LABEL_MED = new Color(255, 200, 100);
+    private static final Color LABEL_LOW = new Color(255, 100, 100);
+    private static final Color[] BAR_COLORS = {HEALTH_BAR_FULL, HEALTH_BAR_MED, HEALTH_BAR_LOW};
     private static final int BAR_HEIGHT = 30;
+    private static final int MAX_CACHED_HEALTH = 10_000;
+    private static final String TITLE = "PLAYER";
+    
+    // "0%" to "100%", made once
+    private static final String[] PERCENT_TEXT = new String[101];
+    static {
+        for (int i = 0; i <= 100; i++) {
+            PERCENT_TEXT[i] = i + "%";
+        }
+    }
     
     /**
      * Constructor with default max health
@@ -57,41 +87,18 @@ public class PlayerStatusPanel extends JPanel {
      * Initialize panel components
      */
     private void initializeComponents() {
-        // Title panel
-        JPanel titlePanel = new JPanel(new BorderLayout());
-        titlePanel.setOpaque(false);
-        
-        JLabel titleLabel = new JLabel("PLAYER", SwingConstants.LEFT);
-        titleLabel.setFont(TITLE_FONT);
-        titleLabel.setForeground(Color.CYAN);
-        
-        // Right side: health and speed
-        JPanel statsPanel = new JPanel();
-        statsPanel.setLayout(new BoxLayout(statsPanel, BoxLayout.Y_AXIS));
-        statsPanel.setOpaque(false);
-        
-        healthLabel = new JLabel(currentHealth + " / " + maxHealth + " HP", SwingConstants.RIGHT);
-        healthLabel.setFont(HEALTH_FONT);
-        healthLabel.setForeground(Color.WHITE);
-        healthLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
-        
-        speedLabel = new JLabel("SPD: " + speed, SwingConstants.RIGHT);
-        speedLabel.setFont(SPEED_FONT);
-        speedLabel.setForeground(Color.CYAN);
-        speedLabel.setAlignmentX(Component.RIGHT_ALIGNMENT);
-        
-        statsPanel.add(healthLabel);
-        statsPanel.add(speedLabel);
-        
-        titlePanel.add(titleLabel, BorderLayout.WEST);
-        titlePanel.add(statsPanel, BorderLayout.EAST);
+        // Title on the left, health and speed on the right
+        statusLine = new StatusLine();
         
         // Health bar
         healthBar = new HealthBar();
         
         // Add to panel
-        add(titlePanel, BorderLayout.NORTH);
+        add(statusLine, BorderLayout.NORTH);
         add(healthBar, BorderLayout.CENTER);
+        
+        setSpeed(speed);
+        setHealth(currentHealth);
     }
     
     /**
@@ -100,21 +107,45 @@ public class PlayerStatusPanel extends JPanel {
      */
     public void setHealth(int currentHealth) {
         this.currentHealth = Math.max(0, Math.min(maxHealth, currentHealth));
-        healthLabel.setText(this.currentHealth + " / " + maxHealth + " HP");
+        if (this.currentHealth == shownHealth && maxHealth == shownMaxHealth) {
+            return;  // Nothing changed
+        }
+        if (maxHealth != shownMaxHealth) {
+            healthText = maxHealth >= 0 && maxHealth <= MAX_CACHED_HEALTH ? new String[maxHealth + 1] : null;
+        }
+        shownHealth = this.currentHealth;
+        shownMaxHealth = maxHealth;
         
         // Update label color based on health
         double healthPercent = (double) this.currentHealth / maxHealth;
+        Color color;
         if (healthPercent > 0.5) {
-            healthLabel.setForeground(Color.WHITE);
+            color = Color.WHITE;
         } else if (healthPercent > 0.25) {
-            healthLabel.setForeground(new Color(255, 200, 100));
+            color = LABEL_MED;
         } else {
-            healthLabel.setForeground(new Color(255, 100, 100));
+            color = LABEL_LOW;
         }
+        statusLine.setHealthText(healthText(this.currentHealth), color);
         
         healthBar.repaint();
     }
     
+    /**
+     * Get the "N / MAX HP" text, building it the first time
+     */
+    private String healthText(int health) {
+        if (healthText == null) {
+            return health + " / " + maxHealth + " HP";
+        }
+        String text = healthText[health];
+        if (text == null) {
+            text = health + " / " + maxHealth + " HP";
+            healthText[health] = text;
+        }
+        return text;
+    }
+    
     /**
      * Set the maximum health
      * @param maxHealth The new maximum health value
@@ -129,8 +160,11 @@ public class PlayerStatusPanel extends JPanel {
      * @param speed The speed value
      */
     public void setSpeed(int speed) {
+        if (speed == this.speed && statusLine.speedText != null) {
+            return;  // Nothing changed
+        }
         this.speed = speed;
-        speedLabel.setText("SPD: " + speed);
+        statusLine.setSpeedText("SPD: " + speed);
     }
     
     /**
@@ -157,17 +191,106 @@ public class PlayerStatusPanel extends JPanel {
         return speed;
     }
     
+    @Override
+    public void paint(Graphics g) {
+        long start = PaintTimer.start();
+        try {
+            super.paint(g);
+        } finally {
+            PaintTimer.stop(Metrics.PAINT_STATUS, start);
+        }
+    }
+    
+    /**
+     * "PLAYER" on the left, health over speed on the right, in one component
+     */
+    private class StatusLine extends JComponent {
+        
+        private String healthText = "";
+        private String speedText;
+        private Color healthColor = Color.WHITE;
+        private int healthWidth;
+        private int speedWidth;
+        
+        // Measured once
+        private final FontMetrics titleMetrics = getFontMetrics(TITLE_FONT);
+        private final FontMetrics healthMetrics = getFontMetrics(HEALTH_FONT);
+        private final FontMetrics speedMetrics = getFontMetrics(SPEED_FONT);
+        
+        StatusLine() {
+            int height = Math.max(titleMetrics.getHeight(),
+                healthMetrics.getHeight() + speedMetrics.getHeight());
+            setPreferredSize(new Dimension(0, height));
+        }
+        
+        void setHealthText(String text, Color color) {
+            if (text != healthText) {
+                healthText = text;
+                healthWidth = healthMetrics.stringWidth(text);
+            }
+            healthColor = color;
+            repaint();
+        }
+        
+        void setSpeedText(String text) {
+            speedText = text;
+            speedWidth = speedMetrics.stringWidth(text);
+            repaint();
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int width = getWidth();
+            
+            // Title, centered top to bottom
+            g2d.setFont(TITLE_FONT);
+            g2d.setColor(Color.CYAN);
+            g2d.drawString(TITLE, 0, (getHeight() - titleMetrics.getHeight()) / 2 + titleMetrics.getAscent());
+            
+            // Health, then speed, right-aligned
+            g2d.setFont(HEALTH_FONT);
+            g2d.setColor(healthColor);
+            g2d.drawString(healthText, width - healthWidth, healthMetrics.getAscent());
+            
+            g2d.setFont(SPEED_FONT);
+            g2d.setColor(Color.CYAN);
+            g2d.drawString(speedText, width - speedWidth, healthMetrics.getHeight() + speedMetrics.getAscent());
+        }
+    }
+    
     /**
      * Visual health bar component
      */
     private class HealthBar extends JPanel {
         
+        // The full bar drawn once per color with its gradient, remade on resize
+        // (filling with a GradientPaint makes garbage every time, copying doesn't)
+        private final BufferedImage[] bars = new BufferedImage[BAR_COLORS.length];
+        private int barsWidth = -1;
+        private int barsHeight = -1;
+        
+        // Width of each percent label, measured once
+        private final int[] percentWidth = new int[PERCENT_TEXT.length];
+        private FontMetrics percentMetrics;
+        
         public HealthBar() {
             setPreferredSize(new Dimension(0, BAR_HEIGHT));
             setBackground(HEALTH_BAR_BG);
             setBorder(BorderFactory.createLineBorder(Color.WHITE, 2));
         }
         
+        @Override
+        public void paint(Graphics g) {
+            long start = PaintTimer.start();
+            try {
+                super.paint(g);
+            } finally {
+                PaintTimer.stop(Metrics.PAINT_STATUS, start);
+            }
+        }
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
@@ -180,37 +303,72 @@ public class PlayerStatusPanel extends JPanel {
             int barWidth = (int) (width * healthPercent);
             
             // Choose color based on health percentage
-            Color barColor;
+            int colorIndex;
             if (healthPercent > 0.5) {
-                barColor = HEALTH_BAR_FULL;
+                colorIndex = 0;
             } else if (healthPercent > 0.25) {
-                barColor = HEALTH_BAR_MED;
+                colorIndex = 1;
             } else {
-                barColor = HEALTH_BAR_LOW;
+                colorIndex = 2;
             }
             
             // Draw health bar with gradient
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
-            // Create gradient for depth effect
-            GradientPaint gradient = new GradientPaint(
-                0, 0, barColor.brighter(),
-                0, height, barColor
-            );
-            g2d.setPaint(gradient);
-            g2d.fillRect(2, 2, barWidth - 4, height - 4);
+            // Gradient for depth effect
+            if (barWidth > 4 && height > 4) {
+                g2d.drawImage(bar(colorIndex, width, height),
+                    2, 2, barWidth - 2, height - 2,
+                    0, 0, barWidth - 4, height - 4, null);
+            }
             
             // Draw percentage text
-            String percentText = String.format("%.0f%%", healthPercent * 100);
+            int percent = (int) Math.round(Math.max(0, Math.min(1, healthPercent)) * 100);
+            String percentText = PERCENT_TEXT[percent];
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 14));
-            FontMetrics fm = g2d.getFontMetrics();
-            int textWidth = fm.stringWidth(percentText);
+            g2d.setFont(PERCENT_FONT);
+            FontMetrics fm = metrics();
+            int textWidth = percentWidth[percent];
             int textHeight = fm.getAscent();
             g2d.drawString(percentText, 
                 (width - textWidth) / 2, 
                 (height + textHeight) / 2 - 2);
         }
+        
+        /**
+         * Get the full-width bar for a color, redrawing them if the size changed
+         */
+        private BufferedImage bar(int colorIndex, int width, int height) {
+            if (width != barsWidth || height != barsHeight) {
+                barsWidth = width;
+                barsHeight = height;
+                for (int i = 0; i < BAR_COLORS.length; i++) {
+                    bars[i] = new BufferedImage(width - 4, height - 4, BufferedImage.TYPE_INT_RGB);
+                    Graphics2D g2d = bars[i].createGraphics();
+                    // Same gradient as across the whole bar, shifted by the 2px border
+                    g2d.setPaint(new GradientPaint(
+                        0, -2, BAR_COLORS[i].brighter(),
+                        0, height - 2, BAR_COLORS[i]
+                    ));
+                    g2d.fillRect(0, 0, width - 4, height - 4);
+                    g2d.dispose();
+                }
+            }
+            return bars[colorIndex];
+        }
+        
+        /**
+         * Get the percent font's metrics, measuring every label the first time
+         */
+        private FontMetrics metrics() {
+            if (percentMetrics == null) {
+                percentMetrics = getFontMetrics(PERCENT_FONT);
+                for (int i = 0; i < PERCENT_TEXT.length; i++) {
+                    percentWidth[i] = percentMetrics.stringWidth(PERCENT_TEXT[i]);
+                }
+            }
+            return percentMetrics;
+        }
     }
 }
\ No newline at end of file
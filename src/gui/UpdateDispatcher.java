@@ -0,0 +1,248 @@
+package gui;
+import javax.swing.*;
+
+import game.Inventory;
+import game.Item;
+import game.Monster;
+import metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * UpdateDispatcher - Collects display changes and applies them once per frame
+ *
+ * MonsterBattleGUI used to post one invokeLater() per API call, so a busy
+ * turn flooded the Swing event thread with work that was replaced a moment
+ * later anyway. The dispatcher instead remembers only the latest value for
+ * each panel and applies them all in a single pass on the event thread,
+ * at most once per frame.
+ *
+ * Messages are the exception: the message panel shows the last three, so
+ * up to three pending messages are kept in order.
+ *
+ * New monsters clear the highlight, as they always did, except for a
+ * flash that is still running: it is put back after the monsters, so a
+ * flash started just before the turn's updateMonsters() is still shown.
+ */
+class UpdateDispatcher {
+
+    // Minimum time between two passes (~60 per second)
+    private static final int FRAME_MILLIS = 16;
+
+    // Marks "nothing pending" for the int values
+    private static final int NONE = Integer.MIN_VALUE;
+
+    // How many messages the message panel can show
+    private static final int MESSAGES_SHOWN = 3;
+
+    private final MonsterDisplayPanel monsterPanel;
+    private final PlayerStatusPanel playerStatusPanel;
+    private final InventoryPanel inventoryPanel;
+    private final MessagePanel messagePanel;
+    private final ActionButtonPanel buttonPanel;
+
+    // Latest pending value per panel (null / NONE = nothing to do)
+    private final AtomicReference<ArrayList<Monster>> monsters = new AtomicReference<>();
+    private final AtomicReference<List<?>> items = new AtomicReference<>();  // Items or Stacks
+    private final AtomicReference<String[]> buttonLabels = new AtomicReference<>();
+    private final AtomicInteger highlight = new AtomicInteger(NONE);
+    private final AtomicInteger health = new AtomicInteger(NONE);
+    private final AtomicInteger maxHealth = new AtomicInteger(NONE);
+    private final AtomicInteger speed = new AtomicInteger(NONE);
+    private final AtomicInteger buttonsEnabled = new AtomicInteger(NONE);
+    private final ConcurrentLinkedQueue<String> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger messageCount = new AtomicInteger();
+
+    // Monster lit by a running flashMonster() (-1 = none)
+    private final AtomicInteger flashing = new AtomicInteger(-1);
+
+    // Is a pass already on its way? (and when was it posted, for Metrics.EDT_DELAY)
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long postedNanos;
+    private long lastPassNanos;
+    private final Timer frameTimer;
+
+    UpdateDispatcher(MonsterDisplayPanel monsterPanel, PlayerStatusPanel playerStatusPanel,
+                     InventoryPanel inventoryPanel, MessagePanel messagePanel,
+                     ActionButtonPanel buttonPanel) {
+        this.monsterPanel = monsterPanel;
+        this.playerStatusPanel = playerStatusPanel;
+        this.inventoryPanel = inventoryPanel;
+        this.messagePanel = messagePanel;
+        this.buttonPanel = buttonPanel;
+
+        frameTimer = new Timer(FRAME_MILLIS, e -> applyPending());
+        frameTimer.setRepeats(false);
+    }
+
+    // ==================== CALLED FROM ANY THREAD ====================
+
+    void updateMonsters(ArrayList<Monster> list) {
+        monsters.set(list);
+        highlight.set(NONE);  // showing new monsters clears the highlight anyway
+        schedule();
+    }
+
+    void highlightMonster(int index) {
+        flashing.set(-1);  // replaces any flash
+        highlight.set(index);
+        schedule();
+    }
+
+    void flashMonster(int index) {
+        flashing.set(index);
+        highlight.set(index);
+        schedule();
+    }
+
+    void endFlash() {
+        flashing.set(-1);
+        highlight.set(-1);
+        schedule();
+    }
+
+    void updatePlayerHealth(int value) {
+        health.set(value);
+        schedule();
+    }
+
+    void setPlayerMaxHealth(int value) {
+        maxHealth.set(value);
+        schedule();
+    }
+
+    void setPlayerSpeed(int value) {
+        speed.set(value);
+        schedule();
+    }
+
+    void updateInventory(ArrayList<Item> list) {
+        items.set(list);
+        schedule();
+    }
+
+    void updateStacks(ArrayList<Inventory.Stack> stacks) {
+        items.set(stacks);
+        schedule();
+    }
+
+    void displayMessage(String message) {
+        messages.add(message);
+        // Older messages would scroll out of view before anyone saw them
+        if (messageCount.incrementAndGet() > MESSAGES_SHOWN && messages.poll() != null) {
+            messageCount.decrementAndGet();
+        }
+        schedule();
+    }
+
+    void setButtonLabels(String[] labels) {
+        buttonLabels.set(labels);
+        schedule();
+    }
+
+    void setButtonsEnabled(boolean enabled) {
+        buttonsEnabled.set(enabled ? 1 : 0);
+        schedule();
+    }
+
+    /**
+     * Make sure one pass is on its way
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            postedNanos = System.nanoTime();
+            SwingUtilities.invokeLater(this::passOrWait);
+        }
+    }
+
+    // ==================== EVENT THREAD ONLY ====================
+
+    /**
+     * Apply now, or wait for the rest of the frame if the last pass was recent
+     */
+    private void passOrWait() {
+        Metrics.EDT_DELAY.recordSince(postedNanos);
+        long sinceLast = (System.nanoTime() - lastPassNanos) / 1_000_000;
+        if (sinceLast >= FRAME_MILLIS) {
+            applyPending();
+        } else {
+            frameTimer.setInitialDelay((int) (FRAME_MILLIS - sinceLast));
+            frameTimer.restart();
+        }
+    }
+
+    /**
+     * Apply every pending change in one pass
+     */
+    private void applyPending() {
+        // Clear first: anything posted while we work schedules another pass
+        scheduled.set(false);
+        lastPassNanos = System.nanoTime();
+
+        // (EdtWatchdog.activity() names each step in case it is the slow one)
+        int value = maxHealth.getAndSet(NONE);
+        if (value != NONE) {
+            EdtWatchdog.activity("MonsterBattleGUI.setPlayerMaxHealth()");
+            playerStatusPanel.setMaxHealth(value);
+        }
+
+        value = health.getAndSet(NONE);
+        if (value != NONE) {
+            EdtWatchdog.activity("MonsterBattleGUI.updatePlayerHealth()");
+            playerStatusPanel.setHealth(value);
+        }
+
+        value = speed.getAndSet(NONE);
+        if (value != NONE) {
+            EdtWatchdog.activity("MonsterBattleGUI.setPlayerSpeed()");
+            playerStatusPanel.setSpeed(value);
+        }
+
+        ArrayList<Monster> monsterList = monsters.getAndSet(null);
+        if (monsterList != null) {
+            EdtWatchdog.activity("MonsterBattleGUI.updateMonsters()");
+            monsterPanel.setMonsters(monsterList);
+        }
+
+        // After the monsters, which clear the panel's highlight
+        value = highlight.getAndSet(NONE);
+        if (value == NONE && monsterList != null) {
+            int flash = flashing.get();
+            if (flash != -1) value = flash;  // a running flash outlives the update
+        }
+        if (value != NONE) {
+            EdtWatchdog.activity("MonsterBattleGUI.highlightMonster()");
+            monsterPanel.highlightMonster(value);
+        }
+
+        List<?> itemList = items.getAndSet(null);
+        if (itemList != null) {
+            EdtWatchdog.activity("MonsterBattleGUI.updateInventory()");
+            inventoryPanel.setRows(itemList);
+        }
+
+        String message;
+        while ((message = messages.poll()) != null) {
+            EdtWatchdog.activity("MonsterBattleGUI.displayMessage()");
+            messageCount.decrementAndGet();
+            messagePanel.setMessage(message);
+        }
+
+        String[] labels = buttonLabels.getAndSet(null);
+        if (labels != null) {
+            EdtWatchdog.activity("MonsterBattleGUI.setActionButtons()");
+            buttonPanel.setButtonLabels(labels);
+        }
+
+        value = buttonsEnabled.getAndSet(NONE);
+        if (value != NONE) {
+            EdtWatchdog.activity("MonsterBattleGUI.setButtonsEnabled()");
+            buttonPanel.setEnabled(value == 1);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package metrics;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - Counts how long something took, cheaply, from any thread
+ *
+ * Every sample goes into one of 64 buckets by its power of two (bucket b
+ * holds times up to 2^b nanoseconds), plus a count, a total and a max.
+ * Recording is a few atomic adds: no locks and no allocation, so it is
+ * safe on the event thread and in paint code.
+ *
+ * Usage:
+ *   long start = System.nanoTime();
+ *   doWork();
+ *   histogram.recordSince(start);
+ */
+public final class LatencyHistogram implements LatencyHistogramMBean {
+
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param name Short name, e.g. "turn" (also the JMX name)
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Add one sample
+     * @param nanos How long it took
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Add the time since a System.nanoTime() reading
+     * @param startNanos When it started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Smallest b with nanos <= 2^b
+     */
+    private static int bucketOf(long nanos) {
+        return nanos <= 1 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos - 1));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1000.0 / n;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileMicros(0.50);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return percentileMicros(0.90);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileMicros(0.99);
+    }
+
+    /**
+     * Get an upper bound for a percentile
+     * @param fraction 0.5 for the median, 0.99 for the 99th percentile
+     * @return The top of the bucket the percentile falls in, in microseconds (never above the max)
+     */
+    public double percentileMicros(double fraction) {
+        long[] counts = getBuckets();
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long wanted = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= Math.max(1, wanted)) {
+                return Math.min(Math.pow(2, b), maxNanos.get()) / 1000.0;
+            }
+        }
+        return getMaxMicros();
+    }
+
+    @Override
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = buckets.get(b);
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets.set(b, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-18s %,10d  mean %10.1f  p50 %10.1f  p99 %10.1f  max %10.1f us",
+            name, getCount(), getMeanMicros(), getP50Micros(), getP99Micros(), getMaxMicros());
+    }
+}
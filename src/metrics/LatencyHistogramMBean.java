@@ -0,0 +1,32 @@
+package metrics;
+/**
+ * LatencyHistogramMBean - What JMX tools (JConsole, VisualVM) show for one histogram
+ *
+ * Times are in microseconds. Percentiles come from power-of-two buckets,
+ * so they are upper bounds, at most twice the real value.
+ */
+public interface LatencyHistogramMBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getMaxMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    /**
+     * Get how many samples fell in each bucket
+     * @return Count per bucket; bucket b holds times up to 2^b ns
+     */
+    long[] getBuckets();
+
+    /**
+     * Forget every sample
+     */
+    void reset();
+}
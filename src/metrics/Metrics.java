@@ -0,0 +1,108 @@
+package metrics;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics - Where the game's timings are kept
+ *
+ * One LatencyHistogram per thing worth timing, shared by the whole program.
+ * Code records into them directly (Metrics.TURN.recordSince(start)), which
+ * never locks or allocates, so it can stay switched on all the time.
+ *
+ * register() publishes everything over JMX: open the running game in
+ * JConsole or VisualVM and look under "MonsterBattle". The registry itself
+ * has a text report; each histogram is also its own MBean.
+ */
+public final class Metrics implements MetricsMBean {
+
+    public static final String DOMAIN = "MonsterBattle";
+
+    // Game thread: one player or monster turn in run()/runBySpeed() (not choosing
+    // the action or the pause after it), and the time spent in waitForAction()
+    public static final LatencyHistogram TURN = new LatencyHistogram("turn");
+    public static final LatencyHistogram ACTION_WAIT = new LatencyHistogram("actionWait");
+
+    // Event thread: how long MonsterBattleGUI's invokeLater() tasks sat in the
+    // queue, and how long each panel took to paint
+    public static final LatencyHistogram EDT_DELAY = new LatencyHistogram("edtDelay");
+    public static final LatencyHistogram EDT_EVENT = new LatencyHistogram("edtEvent");  // only with EdtWatchdog
+    public static final LatencyHistogram PAINT_MONSTERS = new LatencyHistogram("paint.monsters");
+    public static final LatencyHistogram PAINT_STATUS = new LatencyHistogram("paint.status");
+    public static final LatencyHistogram PAINT_INVENTORY = new LatencyHistogram("paint.inventory");
+
+    private static final List<LatencyHistogram> ALL = List.of(
+        TURN, ACTION_WAIT, EDT_DELAY, EDT_EVENT, PAINT_MONSTERS, PAINT_STATUS, PAINT_INVENTORY);
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static boolean registered;
+
+    private Metrics() {
+    }
+
+    /**
+     * Get the registry
+     * @return The one Metrics object
+     */
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get every histogram
+     * @return The histograms, in a fixed order
+     */
+    public static List<LatencyHistogram> histograms() {
+        return ALL;
+    }
+
+    /**
+     * Publish the registry and every histogram on the platform MBean server
+     *
+     * Safe to call more than once. If JMX isn't available the game still
+     * runs; the error is printed and the numbers stay readable from code.
+     */
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(INSTANCE, new ObjectName(DOMAIN + ":type=Metrics"));
+            for (LatencyHistogram histogram : ALL) {
+                server.registerMBean(histogram,
+                    new ObjectName(DOMAIN + ":type=Latency,name=" + histogram.getName()));
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("Metrics: could not register with JMX: " + e);
+        }
+    }
+
+    @Override
+    public String[] getHistogramNames() {
+        ArrayList<String> names = new ArrayList<>();
+        for (LatencyHistogram histogram : ALL) {
+            names.add(histogram.getName());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (LatencyHistogram histogram : ALL) {
+            report.append(histogram).append('\n');
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : ALL) {
+            histogram.reset();
+        }
+    }
+}
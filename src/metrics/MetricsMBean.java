@@ -0,0 +1,23 @@
+package metrics;
+/**
+ * MetricsMBean - The metrics registry as JMX tools see it
+ */
+public interface MetricsMBean {
+
+    /**
+     * Get the names of every histogram
+     * @return e.g. "turn", "paint.monsters"
+     */
+    String[] getHistogramNames();
+
+    /**
+     * Get one line per histogram with its count, mean and percentiles
+     * @return A readable summary
+     */
+    String getReport();
+
+    /**
+     * Forget every sample in every histogram
+     */
+    void reset();
+}
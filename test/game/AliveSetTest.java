@@ -0,0 +1,118 @@
+package game;
+import java.util.SplittableRandom;
+
+/**
+ * AliveSetTest - The living set stays packed and agrees with a plain boolean[]
+ *
+ * Checks swap-remove (the last index fills the hole), contains(), that
+ * add() and remove() can be called twice, growing past the capacity,
+ * that copies are independent, and that randomIndex() only ever picks
+ * living indices and reaches all of them.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -cp bin game.AliveSetTest
+ */
+public class AliveSetTest {
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        AliveSet set = new AliveSet(5);
+        for (int i = 0; i < 5; i++) set.add(i);
+        check("five added", set.size() == 5 && packed(set).equals("0 1 2 3 4 "));
+
+        // Removing #1 moves the last index (#4) into its slot
+        set.remove(1);
+        check("swap-remove: 0 4 2 3 (got " + packed(set) + ")", packed(set).equals("0 4 2 3 "));
+        check("#1 is gone, #4 is still there", !set.contains(1) && set.contains(4));
+        set.remove(3);
+        check("removing the last one just shrinks: 0 4 2", packed(set).equals("0 4 2 "));
+
+        set.remove(1);
+        set.remove(99);
+        set.add(0);
+        check("remove twice, out of range and add twice change nothing", set.size() == 3
+            && packed(set).equals("0 4 2 "));
+        check("contains() past the capacity is false", !set.contains(1000));
+
+        set.add(12);
+        check("add() grows past the capacity", set.size() == 4 && set.contains(12) && !set.contains(11));
+
+        AliveSet copy = set.copy();
+        copy.remove(0);
+        copy.add(7);
+        check("a copy changes on its own", set.contains(0) && !set.contains(7)
+            && !copy.contains(0) && copy.contains(7));
+
+        // randomIndex() only picks living indices, and reaches each of them
+        SplittableRandom random = new SplittableRandom(4);
+        boolean[] picked = new boolean[13];
+        boolean onlyLiving = true;
+        for (int n = 0; n < 1000; n++) {
+            int i = set.randomIndex(random);
+            onlyLiving &= set.contains(i);
+            picked[i] = true;
+        }
+        check("randomIndex() picks only living indices", onlyLiving);
+        check("randomIndex() reaches all of 0 2 4 12", picked[0] && picked[2] && picked[4] && picked[12]);
+        check("randomIndex() on an empty set is -1", new AliveSet(3).randomIndex(random) == -1);
+
+        // Random adds and removes agree with a boolean[]
+        AliveSet big = new AliveSet(1);
+        boolean[] alive = new boolean[500];
+        boolean agrees = true;
+        for (int n = 0; n < 20_000 && agrees; n++) {
+            int i = random.nextInt(alive.length);
+            if (random.nextBoolean()) {
+                big.add(i);
+                alive[i] = true;
+            } else {
+                big.remove(i);
+                alive[i] = false;
+            }
+            agrees = matches(big, alive);
+        }
+        check("20000 random adds and removes agree with a boolean[]", agrees);
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * The packed indices, front to back
+     */
+    private static String packed(AliveSet set) {
+        StringBuilder text = new StringBuilder();
+        for (int k = 0; k < set.size(); k++) {
+            text.append(set.get(k)).append(' ');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Same members, no duplicates in the packed part
+     */
+    private static boolean matches(AliveSet set, boolean[] alive) {
+        int count = 0;
+        for (int i = 0; i < alive.length; i++) {
+            if (set.contains(i) != alive[i]) return false;
+            if (alive[i]) count++;
+        }
+        if (set.size() != count) return false;
+        boolean[] seen = new boolean[alive.length];
+        for (int k = 0; k < set.size(); k++) {
+            int i = set.get(k);
+            if (!alive[i] || seen[i]) return false;
+            seen[i] = true;
+        }
+        return true;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
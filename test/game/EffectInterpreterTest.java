@@ -0,0 +1,156 @@
+package game;
+import gui.HeadlessBattleView;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * EffectInterpreterTest - Items do what they say, step by step, with the same messages
+ *
+ * Applies effects to a small battle and checks the player's stats, each
+ * monster's health and the messages shown. Steps run in order, so a step
+ * that hits a limit (a monster dying, health capped at max) counts.
+ * Runnable items go through use(engine) too, and only data items can be
+ * serialized.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -Djava.awt.headless=true -cp bin game.EffectInterpreterTest
+ */
+public class EffectInterpreterTest {
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        // The potion says what GameDemo's potion always said
+        HeadlessBattleView view = new HeadlessBattleView(() -> 0, true);
+        BattleEngine engine = setUp(view);
+        engine.addHealthPotion(20);
+        engine.getInventory().useNext(engine);
+        check("potion message (got " + view.getMessages() + ")",
+            view.getMessages().contains("💚 Used Health Potion! Healed 20 HP!"));
+        check("potion heals", engine.getPlayerHealth() == engine.getMaxHealth() - 10);
+
+        // A bare effect (no item) still says how much it healed
+        view = new HeadlessBattleView(() -> 0, true);
+        engine = setUp(view);
+        EffectInterpreter.apply(engine, ItemEffect.heal(5));
+        check("effect without an item (got " + view.getMessages() + ")",
+            view.getMessages().contains("💚 Healed 5 HP!"));
+
+        // Every step of a composite item gets the item's name
+        view = new HeadlessBattleView(() -> 0, true);
+        engine = setUp(view);
+        new ItemType("Elixir", "⚗️", ItemEffect.all(
+            ItemEffect.heal(10), ItemEffect.buff(ItemEffect.Stat.DAMAGE, 15))).use(engine);
+        check("composite step message (got " + view.getMessages() + ")",
+            view.getMessages().contains("💚 Used Elixir! Healed 10 HP!"));
+        check("composite buff applied", engine.getPlayerDamage() == setUp(new HeadlessBattleView(() -> 0))
+            .getPlayerDamage() + 15);
+
+        // An item with three bombs in it says BOOM three times
+        view = new HeadlessBattleView(() -> 0, true);
+        engine = setUp(view);
+        new ItemType("Cluster Bomb", "💣", ItemEffect.all(
+            ItemEffect.damageAll(5), ItemEffect.damageAll(5), ItemEffect.damageAll(5))).use(engine);
+        long booms = view.getMessages().stream().filter(m -> m.contains("BOOM")).count();
+        check("three BOOM messages (got " + booms + ")", booms == 3);
+        check("three bombs: 40/100/15 -> 25/85/0", monsters(engine).equals("25 85 0 "));
+
+        // Steps run in order: the first bomb kills the 15-HP monster,
+        // and a dead monster isn't healed back by the second step
+        engine = setUp(new HeadlessBattleView(() -> 0));
+        EffectInterpreter.apply(engine, ItemEffect.all(ItemEffect.damageAll(50), ItemEffect.damageAll(-20)));
+        check("bomb then heal-all: 40/100/15 -> dead, 70, dead (got " + monsters(engine) + ")",
+            engine.countLivingMonsters() == 1 && engine.getMonsterPool().health(1) == 70);
+
+        // Health is capped at max after each step, not at the end
+        engine = setUp(new HeadlessBattleView(() -> 0));
+        int max = engine.getMaxHealth();
+        EffectInterpreter.apply(engine, ItemEffect.all(ItemEffect.heal(50), ItemEffect.heal(-20)));
+        check("heal 50 then -20 from max-30: max-20 (got " + engine.getPlayerHealth() + ")",
+            engine.getPlayerHealth() == max - 20);
+
+        // Runnable items go through the same use(engine) path as data items
+        engine = setUp(new HeadlessBattleView(() -> 0));
+        int[] runs = new int[1];
+        ItemType lambda = new ItemType("Lambda", "?", () -> runs[0]++);
+        engine.getInventory().add(lambda);
+        check("a Runnable item works through useNext(engine)",
+            engine.getInventory().useNext(engine) == lambda && runs[0] == 1);
+        lambda.runCallback();
+        check("...and through runCallback() without a battle", runs[0] == 2);
+        boolean refused = false;
+        try {
+            new ItemType("Potion", "🧪", ItemEffect.heal(5)).runCallback();
+        } catch (IllegalStateException e) {
+            refused = true;
+        }
+        check("runCallback() on a data effect says to use use(engine)", refused);
+
+        // Data items can be saved; Runnable ones say why they can't
+        Inventory saved = new Inventory();
+        saved.add(new ItemType("Elixir", "⚗️", ItemEffect.all(ItemEffect.heal(10), ItemEffect.damageAll(5))), 2);
+        Inventory loaded = (Inventory) read(write(saved));
+        check("a data-effect inventory survives serialization", loaded.size() == 2
+            && loaded.peekNext().getEffect().equals(saved.peekNext().getEffect()));
+        String reason = null;
+        try {
+            write(new ItemType("Lambda", "?", () -> { }));
+        } catch (NotSerializableException e) {
+            reason = e.getMessage();
+        }
+        check("a Runnable item throws NotSerializableException (got " + reason + ")",
+            reason != null && reason.contains("Callback"));
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * A battle with the player hurt and monsters at 40, 100 and 15 HP
+     */
+    private static BattleEngine setUp(HeadlessBattleView view) {
+        BattleEngine engine = new BattleEngine(view, 1L);
+        engine.chooseBuild(0);
+        engine.restoreHealth(-30);
+        engine.getMonsterPool().add(40, 10, 5, "");
+        engine.getMonsterPool().add(100, 10, 5, "");
+        engine.getMonsterPool().add(15, 10, 5, "");
+        return engine;
+    }
+
+    private static String monsters(BattleEngine engine) {
+        StringBuilder health = new StringBuilder();
+        MonsterPool pool = engine.getMonsterPool();
+        for (int i = 0; i < pool.size(); i++) {
+            health.append(Math.max(0, pool.health(i))).append(' ');
+        }
+        return health.toString();
+    }
+
+    private static byte[] write(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object read(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
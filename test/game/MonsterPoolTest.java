@@ -0,0 +1,291 @@
+package game;
+import gui.HeadlessBattleView;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * MonsterPoolTest - Bulk damage matches one-at-a-time damage, and the living set keeps up
+ *
+ * Runs random damageAll/damageRange/damageWhere/healAll/takeDamage calls
+ * on a pool and on a plain int[] model side by side. After every call the
+ * health must match, the AliveSet must hold exactly the monsters above 0,
+ * and the LifeListener must have heard every death and revival. Waves are
+ * big enough for the branch-free pass and are worn down until the sparse
+ * (living-only) path runs too. Huge heals and hits must saturate instead
+ * of wrapping around. get(i) makes one view, not one per monster, and
+ * asList() can't be changed. heal() and Regeneration stop at the health
+ * a monster started with.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -cp bin game.MonsterPoolTest
+ */
+public class MonsterPoolTest {
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        fixedCases();
+        overflowCases();
+        randomCases();
+        viewCases();
+        healCases();
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    private static void fixedCases() {
+        Checked pool = new Checked(40, 100, 15, 0, 60);
+
+        pool.damageAll(20);
+        check("damageAll(20): 20 80 -5 0 40, one death", pool.is(20, 80, -5, 0, 40) && pool.deaths == 1);
+
+        pool.healAll(10);
+        check("healAll(10) skips the dead: 30 90 -5 0 50", pool.is(30, 90, -5, 0, 50) && pool.revivals == 0);
+
+        pool.damageRange(1, 5, 50);
+        check("damageRange(1, 5, 50): 30 40 -5 0 0", pool.is(30, 40, -5, 0, 0) && pool.deaths == 2);
+
+        pool.damageWhere(i -> i == 0, 30);
+        check("damageWhere(#0, 30) kills #0", pool.is(0, 40, -5, 0, 0) && pool.deaths == 3);
+
+        pool.takeDamage(2, -10);
+        check("takeDamage(#2, -10) revives it", pool.is(0, 40, 5, 0, 0) && pool.revivals == 1);
+        check("living: #1 and #2", pool.pool.countLiving() == 2
+            && pool.pool.living().contains(1) && pool.pool.living().contains(2));
+
+        pool.damageRange(-5, 99, 0);
+        check("damageRange clamps its bounds", pool.is(0, 40, 5, 0, 0));
+        pool.damageRange(3, 3, 100);
+        check("empty range does nothing", pool.is(0, 40, 5, 0, 0));
+    }
+
+    private static void overflowCases() {
+        // A huge group heal: old code counted it as a death and wrapped health negative
+        Checked pool = new Checked(50, 1, -3);
+        pool.healAll(Integer.MAX_VALUE);
+        check("healAll(MAX) saturates", pool.is(Integer.MAX_VALUE, Integer.MAX_VALUE, -3) && pool.deaths == 0);
+        pool.healAll(10);
+        check("healing at MAX stays at MAX", pool.is(Integer.MAX_VALUE, Integer.MAX_VALUE, -3));
+
+        pool = new Checked(50, 70);
+        pool.damageAll(Integer.MIN_VALUE);  // -MIN_VALUE doesn't fit in an int
+        check("damageAll(MIN_VALUE) heals to MAX", pool.is(Integer.MAX_VALUE, Integer.MAX_VALUE)
+            && pool.pool.countLiving() == 2);
+
+        pool = new Checked(Integer.MAX_VALUE, 1);
+        pool.damageAll(Integer.MAX_VALUE);
+        check("damageAll(MAX) kills both (MAX - MAX is 0, not alive)",
+            pool.is(0, 1 - Integer.MAX_VALUE) && pool.pool.countLiving() == 0 && pool.deaths == 2);
+
+        // A dead monster hit hard stops at MIN_VALUE and stays dead through later bulk calls
+        pool = new Checked(-10, 30);
+        pool.takeDamage(0, Integer.MAX_VALUE);
+        check("takeDamage past MIN_VALUE saturates", pool.is(Integer.MIN_VALUE, 30) && pool.revivals == 0);
+        pool.damageAll(5);
+        pool.healAll(5);
+        check("a MIN_VALUE monster counts as dead in bulk passes", pool.is(Integer.MIN_VALUE, 30));
+    }
+
+    private static void randomCases() {
+        SplittableRandom random = new SplittableRandom(19);
+        int rounds = 0;
+        boolean matched = true;
+        for (int trial = 0; trial < 200 && matched; trial++) {
+            int size = 1 + random.nextInt(trial < 100 ? 40 : 400);
+            int[] health = new int[size];
+            for (int i = 0; i < size; i++) {
+                health[i] = random.nextInt(10) == 0 ? -random.nextInt(5) : 1 + random.nextInt(120);
+            }
+            Checked pool = new Checked(health);
+
+            // Wear the wave down so the sparse path gets its turn
+            for (int step = 0; step < 60 && matched; step++) {
+                int dmg = random.nextInt(10) == 0 ? -random.nextInt(30) : random.nextInt(25);
+                switch (random.nextInt(5)) {
+                    case 0 -> pool.damageAll(dmg);
+                    case 1 -> {
+                        int from = random.nextInt(size + 2) - 1;
+                        pool.damageRange(from, from + random.nextInt(size + 1), dmg);
+                    }
+                    case 2 -> {
+                        int mod = 1 + random.nextInt(3);
+                        pool.damageWhere(i -> i % mod == 0, dmg);
+                    }
+                    case 3 -> pool.healAll(random.nextInt(20));
+                    default -> pool.takeDamage(random.nextInt(size), random.nextInt(-20, 60));
+                }
+                rounds++;
+                if (!pool.matches()) {
+                    check("trial " + trial + " step " + step + ": pool matches the model", false);
+                    matched = false;
+                }
+            }
+        }
+        check(rounds + " random bulk calls match the model", matched);
+    }
+
+    private static void viewCases() {
+        MonsterPool pool = new MonsterPool(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            pool.add(50, 10, 5, "");
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        pool.get(999_998);  // warm up
+        long before = threads.getThreadAllocatedBytes(id);
+        Monster last = pool.get(999_999);
+        long bytes = threads.getThreadAllocatedBytes(id) - before;
+        check("get(999999) on a million monsters allocates one view (" + bytes + " B)", bytes < 1024);
+        last.takeDamage(20);
+        check("the view writes its own slot", pool.health(999_999) == 30 && pool.health(999_998) == 50);
+
+        ArrayList<Monster> list = pool.asList();
+        check("after asList(), get(i) is the listed view", pool.get(7) == list.get(7));
+        check("asList().remove() throws", throwsUnsupported(() -> list.remove(0)));
+        check("asList().add() throws", throwsUnsupported(() -> list.add(new Monster())));
+        check("asList().set() throws", throwsUnsupported(() -> list.set(0, list.get(1))));
+        check("asList().sort() throws", throwsUnsupported(() -> list.sort(null)));
+        check("asList().clear() throws", throwsUnsupported(list::clear));
+        check("asList().iterator().remove() throws", throwsUnsupported(() -> {
+            var it = list.iterator();
+            it.next();
+            it.remove();
+        }));
+        check("asList().subList().clear() throws", throwsUnsupported(() -> list.subList(0, 2).clear()));
+        check("views still match their index", list.size() == 1_000_000 && list.get(999_999).health() == 30);
+    }
+
+    private static void healCases() {
+        Checked pool = new Checked(40, 100, -5);
+        pool.takeDamage(0, 30);
+        check("maxHealth is the starting health", pool.pool.maxHealth(0) == 40 && pool.pool.maxHealth(1) == 100);
+        check("heal(#0, 25, max) stops at 40 and says 25", pool.pool.heal(0, 25, pool.pool.maxHealth(0)) == 25
+            && pool.pool.health(0) == 35);
+        check("...then heals only the 5 that are left", pool.pool.heal(0, 25, 40) == 5 && pool.pool.health(0) == 40);
+        check("at max it heals nothing", pool.pool.heal(1, 5, 100) == 0 && pool.pool.health(1) == 100);
+        check("above max it isn't lowered", pool.pool.heal(1, 5, 60) == 0 && pool.pool.health(1) == 100);
+        check("a copy keeps maxHealth", pool.pool.copy().maxHealth(1) == 100);
+
+        // Regeneration heals 5 per attack, never past the starting health
+        HeadlessBattleView view = new HeadlessBattleView(() -> 0, true);
+        BattleEngine engine = new BattleEngine(view, 3L);
+        engine.chooseBuild(1);
+        int regen = engine.getMonsterPool().add(30, 0, 5, "Regeneration");
+        engine.getMonsterPool().takeDamage(regen, 7);
+        for (int n = 0; n < 10; n++) {
+            engine.monsterTurn();
+        }
+        check("Regeneration stops at the starting 30 HP (got " + engine.getMonsterPool().health(regen) + ")",
+            engine.getMonsterPool().health(regen) == 30);
+        check("it says how much it healed, numbering from 1 (got " + view.getMessages() + ")",
+            view.getMessages().contains("💚 Monster #1 regenerates 5 health!")
+            && view.getMessages().contains("💚 Monster #1 regenerates 2 health!"));
+    }
+
+    private static boolean throwsUnsupported(Runnable change) {
+        try {
+            change.run();
+            return false;
+        } catch (UnsupportedOperationException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Checked - A pool with a plain-array model of what it should hold
+     */
+    private static class Checked implements MonsterPool.LifeListener {
+        final MonsterPool pool = new MonsterPool();
+        final int[] model;
+        int deaths, revivals;
+        int expectedDeaths, expectedRevivals;
+
+        Checked(int... health) {
+            model = health.clone();
+            for (int h : health) {
+                pool.add(h, 10, 5, "");
+            }
+            pool.setLifeListener(this);
+        }
+
+        @Override
+        public void died(int monster) {
+            deaths++;
+        }
+
+        @Override
+        public void revived(int monster) {
+            revivals++;
+        }
+
+        void damageAll(int dmg) {
+            pool.damageAll(dmg);
+            hitLiving(0, model.length, i -> true, dmg);
+        }
+
+        void healAll(int amount) {
+            pool.healAll(amount);
+            hitLiving(0, model.length, i -> true, -amount);
+        }
+
+        void damageRange(int from, int to, int dmg) {
+            pool.damageRange(from, to, dmg);
+            hitLiving(Math.max(0, from), Math.min(model.length, to), i -> true, dmg);
+        }
+
+        void damageWhere(java.util.function.IntPredicate filter, int dmg) {
+            pool.damageWhere(filter, dmg);
+            hitLiving(0, model.length, filter, dmg);
+        }
+
+        void takeDamage(int i, int dmg) {
+            pool.takeDamage(i, dmg);
+            int before = model[i];
+            model[i] = minus(before, dmg);
+            if (before > 0 && model[i] <= 0) expectedDeaths++;
+            if (before <= 0 && model[i] > 0) expectedRevivals++;
+        }
+
+        private void hitLiving(int from, int to, java.util.function.IntPredicate filter, int dmg) {
+            for (int i = from; i < to; i++) {
+                if (model[i] > 0 && filter.test(i)) {
+                    model[i] = minus(model[i], dmg);
+                    if (model[i] <= 0) expectedDeaths++;
+                }
+            }
+        }
+
+        private static int minus(int health, int dmg) {
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) health - dmg));
+        }
+
+        boolean is(int... health) {
+            return java.util.Arrays.equals(model, health) && matches();
+        }
+
+        /**
+         * Health, the living set and the listener all agree with the model
+         */
+        boolean matches() {
+            int living = 0;
+            for (int i = 0; i < model.length; i++) {
+                if (pool.health(i) != model[i]) return false;
+                if (pool.living().contains(i) != (model[i] > 0)) return false;
+                if (model[i] > 0) living++;
+            }
+            return pool.countLiving() == living && deaths == expectedDeaths && revivals == expectedRevivals;
+        }
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
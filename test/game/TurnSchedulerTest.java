@@ -0,0 +1,139 @@
+package game;
+import gui.HeadlessBattleView;
+
+/**
+ * TurnSchedulerTest - Faster actors act more often, and dead monsters stop acting
+ *
+ * Checks turn order by speed (a speed 10 actor acts twice as often as a
+ * speed 5 one, ties go to the lower number, a huge speed can't starve the
+ * others), remove() and setSpeed(), and
+ * plays runBySpeed() battles to check that a monster leaves the timeline
+ * as soon as it dies.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -Djava.awt.headless=true -cp bin game.TurnSchedulerTest
+ */
+public class TurnSchedulerTest {
+
+    private static int failures;
+    private static boolean scheduledMatchesLiving = true;
+
+    public static void main(String[] args) {
+        // Speeds 10, 5 and 5: the first round is 0 (at 252), 0, 1, 2 (tie at 504), ...
+        TurnScheduler scheduler = new TurnScheduler(3);
+        scheduler.add(0, 10);
+        scheduler.add(1, 5);
+        scheduler.add(2, 5);
+        String order = order(scheduler, 8);
+        check("order: 0 0 1 2 0 0 1 2 (got " + order + ")", order.equals("0 0 1 2 0 0 1 2 "));
+
+        scheduler = new TurnScheduler(3);
+        scheduler.add(0, 10);
+        scheduler.add(1, 5);
+        scheduler.add(2, 1);
+        int[] turns = new int[3];
+        while (scheduler.timeOf(scheduler.next()) <= 100 * TurnScheduler.TICKS_PER_ROUND) {
+            turns[scheduler.advance()]++;
+        }
+        check("in 100 rounds: 1000, 500 and 100 turns (got " + turns[0] + ", " + turns[1] + ", "
+            + turns[2] + ")", turns[0] == 1000 && turns[1] == 500 && turns[2] == 100);
+
+        scheduler = new TurnScheduler(1);
+        scheduler.add(3, 5);
+        scheduler.add(1, 5);
+        check("a tie goes to the lower actor", scheduler.advance() == 1 && scheduler.advance() == 3);
+        check("add() grows past the capacity", scheduler.contains(3) && scheduler.size() == 2);
+        check("speed below 1 counts as 1", addAndTime(0) == TurnScheduler.TICKS_PER_ROUND);
+
+        // A huge speed (e.g. stacked SPEED buffs) still lets the others act
+        scheduler = new TurnScheduler(2);
+        scheduler.add(0, 5);
+        scheduler.add(1, 5);
+        scheduler.setSpeed(1, 1_000_000);
+        scheduler.add(2, 10_000);
+        check("speeds above TICKS_PER_ROUND wait 1 tick", addAndTime(10_000) == 1);
+        turns = new int[3];
+        for (int n = 0; n < 100_000 && scheduler.now() < TurnScheduler.TICKS_PER_ROUND; n++) {
+            turns[scheduler.advance()]++;
+        }
+        check("with speed 1000000 in the mix, speed 5 still acts 5 times a round (got " + turns[0] + ")",
+            turns[0] == 5);
+
+        // remove() takes an actor out without disturbing the others
+        scheduler = new TurnScheduler(4);
+        for (int actor = 0; actor < 4; actor++) scheduler.add(actor, actor + 1);
+        scheduler.remove(3);
+        scheduler.remove(3);
+        scheduler.remove(-1);
+        check("removed twice, size 3", scheduler.size() == 3 && !scheduler.contains(3));
+        boolean gone = true;
+        for (int n = 0; n < 50; n++) gone &= scheduler.advance() != 3;
+        check("a removed actor gets no turns", gone);
+        scheduler.remove(0);
+        scheduler.remove(1);
+        scheduler.remove(2);
+        check("empty: next() and advance() are -1", scheduler.next() == -1 && scheduler.advance() == -1);
+
+        // setSpeed() keeps the part of the wait already done
+        scheduler = new TurnScheduler(2);
+        scheduler.add(0, 2);        // acts at 1260
+        scheduler.add(1, 4);        // acts at 630
+        scheduler.advance();        // now 630, actor 0 is halfway through its wait
+        scheduler.setSpeed(0, 4);   // half of 630 ticks left at double speed
+        check("setSpeed halves the rest of the wait (got " + scheduler.timeOf(0) + ")",
+            scheduler.timeOf(0) == 630 + 315);
+        check("...and then waits the new delay", scheduler.advance() == 0
+            && scheduler.timeOf(0) == 945 + TurnScheduler.TICKS_PER_ROUND / 4);
+
+        // In a real battle, a monster that dies leaves the timeline at once
+        for (long seed = 1; seed <= 20; seed++) {
+            battle(seed);
+        }
+        check("runBySpeed(): only living monsters are ever scheduled", scheduledMatchesLiving);
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * Play a battle where the player always attacks, checking the timeline
+     * against the monsters' health before each player turn
+     */
+    private static void battle(long seed) {
+        BattleEngine engine = new BattleEngine(new HeadlessBattleView(() -> 0), seed);
+        engine.chooseBuild(0);
+        engine.spawnMonsters(6);
+        engine.start();
+        engine.runBySpeed(e -> {
+            TurnScheduler timeline = e.getTurnScheduler();
+            MonsterPool pool = e.getMonsterPool();
+            for (int i = 0; i < pool.size(); i++) {
+                scheduledMatchesLiving &= timeline.contains(i + 1) == (pool.health(i) > 0);
+            }
+            scheduledMatchesLiving &= e.getTurns() < 10_000;
+            return scheduledMatchesLiving ? 0 : -1;
+        });
+    }
+
+    private static long addAndTime(int speed) {
+        TurnScheduler scheduler = new TurnScheduler(1);
+        scheduler.add(0, speed);
+        return scheduler.timeOf(0);
+    }
+
+    private static String order(TurnScheduler scheduler, int turns) {
+        StringBuilder text = new StringBuilder();
+        for (int n = 0; n < turns; n++) {
+            text.append(scheduler.advance()).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
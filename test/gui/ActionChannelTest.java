@@ -0,0 +1,130 @@
+package gui;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ActionChannelTest - Actions go to the turn that was waiting, and cancel() always wakes it
+ *
+ * The races are run many times each: cancel() while the game thread is
+ * working through queued type-ahead, and a click that lands just as
+ * await(Duration) times out. A click the channel accepted must come out
+ * of that await(), never a later turn's.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -cp bin gui.ActionChannelTest
+ */
+public class ActionChannelTest {
+
+    private static final int ROUNDS = 2000;
+    private static final int TURNS = 200_000;
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        // The basics
+        ActionChannel channel = new ActionChannel();
+        check("nobody waiting, no type-ahead: ignored", !channel.offer(1));
+        check("ignored action isn't kept", channel.await(Duration.ZERO) == ActionChannel.NO_ACTION);
+        channel.setTypeAhead(2);
+        check("type-ahead 1 of 2 kept", channel.offer(1));
+        check("type-ahead 2 of 2 kept", channel.offer(2));
+        check("type-ahead 3 of 2 ignored", !channel.offer(3));
+        check("type-ahead comes out in order", channel.await() == 1 && channel.await() == 2);
+        channel.offer(3);
+        channel.cancel();
+        check("cancel() drops type-ahead", channel.await() == ActionChannel.NO_ACTION);
+        check("cancelled channel ignores actions", !channel.offer(0));
+
+        cancelWithTypeAhead();
+        clickAtTimeout();
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * BattleSession keeps 4 actions of type-ahead; removing the session
+     * cancels while the game thread may be taking them. It must never hang.
+     */
+    private static void cancelWithTypeAhead() throws InterruptedException {
+        int hung = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            ActionChannel channel = new ActionChannel();
+            channel.setTypeAhead(4);
+            for (int i = 0; i < 4; i++) channel.offer(i);
+
+            Thread game = new Thread(() -> {
+                // 4 queued actions, then one await() with nothing left
+                for (int i = 0; i < 5; i++) {
+                    if (channel.await() == ActionChannel.NO_ACTION) return;
+                }
+            });
+            game.start();
+            if ((round & 1) == 0) Thread.onSpinWait();
+            channel.cancel();
+            game.join(TimeUnit.SECONDS.toMillis(2));
+            if (game.isAlive()) {
+                hung++;
+                channel.reset();
+                channel.setTypeAhead(1);
+                channel.cancel();  // free the thread so the test can finish
+            }
+        }
+        check("cancel() with queued type-ahead always wakes await() (" + hung + " hung)", hung == 0);
+    }
+
+    /**
+     * With no type-ahead, a click racing a timeout is either taken by that
+     * await() or refused; it is never queued for the next turn.
+     *
+     * The game thread numbers its turns; the clicking thread notes the turn
+     * number right after each accepted click. A click can only be accepted
+     * while a turn is waiting, so it must come out of that turn or an
+     * earlier one, never a turn that started after it was accepted.
+     * The race is only hit now and then, so this runs for a while.
+     */
+    private static void clickAtTimeout() throws InterruptedException {
+        ActionChannel channel = new ActionChannel();
+        AtomicInteger turn = new AtomicInteger();
+        int[] takenOnTurn = new int[TURNS + 1];
+        int[] acceptedOnTurn = new int[TURNS + 1];
+        Thread game = new Thread(() -> {
+            for (int t = 1; t <= TURNS; t++) {
+                turn.set(t);
+                int action = channel.await(Duration.ofNanos(500));
+                if (action != ActionChannel.NO_ACTION) takenOnTurn[action] = t;
+            }
+        });
+        game.start();
+        int clicks = 0;
+        while (game.isAlive() && clicks < acceptedOnTurn.length) {
+            if (channel.offer(clicks)) {
+                acceptedOnTurn[clicks++] = turn.get();
+                // Click again somewhere around the next turn's timeout
+                long until = System.nanoTime() + (clicks * 37 % 1_000);
+                while (System.nanoTime() < until) Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        game.join();
+
+        int lost = 0, late = 0;
+        for (int i = 0; i < clicks; i++) {
+            if (takenOnTurn[i] == 0) lost++;
+            else if (takenOnTurn[i] > acceptedOnTurn[i]) late++;
+        }
+        System.out.println("     (" + clicks + " clicks accepted in " + TURNS + " turns)");
+        check("every accepted click is returned (" + lost + " lost)", lost == 0);
+        check("no click is left for a later turn (" + late + " late)", late == 0);
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
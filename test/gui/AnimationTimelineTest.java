@@ -0,0 +1,77 @@
+package gui;
+import javax.swing.SwingUtilities;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AnimationTimelineTest - pause() waits for its step on the timeline
+ *
+ * Checks that a pause lasts about as long as asked (scaled by the speed),
+ * that an effect scheduled before it has run by the time it returns, and
+ * that switching to turbo lets a waiting pause go at once.
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -Djava.awt.headless=true -cp bin gui.AnimationTimelineTest
+ */
+public class AnimationTimelineTest {
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        AnimationTimeline timeline = new AnimationTimeline();
+
+        // A flash cleared at 100 ms, then the turn pauses for 150 ms
+        AtomicBoolean cleared = new AtomicBoolean();
+        long start = System.nanoTime();
+        timeline.schedule(100, () -> cleared.set(true));
+        timeline.pause(150);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        check("pause(150) took at least 150 ms (took " + millis + ")", millis >= 150);
+        check("the effect due before it has run", cleared.get());
+
+        // Twice as fast
+        timeline.setSpeed(2);
+        start = System.nanoTime();
+        timeline.pause(200);
+        millis = (System.nanoTime() - start) / 1_000_000;
+        check("pause(200) at speed 2 took about 100 ms (took " + millis + ")", millis >= 100 && millis < 200);
+
+        // Turbo while a long pause is waiting
+        timeline.setSpeed(1);
+        Thread game = new Thread(() -> timeline.pause(60_000));
+        game.start();
+        Thread.sleep(100);
+        start = System.nanoTime();
+        timeline.setSpeed(AnimationTimeline.TURBO);
+        game.join(5_000);
+        millis = (System.nanoTime() - start) / 1_000_000;
+        check("turbo lets a waiting pause go (took " + millis + " ms)", !game.isAlive());
+
+        // Turbo pauses don't wait at all
+        start = System.nanoTime();
+        timeline.pause(60_000);
+        millis = (System.nanoTime() - start) / 1_000_000;
+        check("turbo pause returns at once (took " + millis + " ms)", millis < 50);
+
+        // On the event thread it still waits (it can't wait for its own timer)
+        timeline.setSpeed(1);
+        long[] edtMillis = new long[1];
+        SwingUtilities.invokeAndWait(() -> {
+            long edtStart = System.nanoTime();
+            timeline.pause(50);
+            edtMillis[0] = (System.nanoTime() - edtStart) / 1_000_000;
+        });
+        check("pause(50) on the event thread returns (took " + edtMillis[0] + " ms)", edtMillis[0] >= 50);
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
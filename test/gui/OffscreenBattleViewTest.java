@@ -0,0 +1,136 @@
+package gui;
+import game.BattleEngine;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * OffscreenBattleViewTest - A seeded battle looks the same as its golden images
+ *
+ * Plays a battle with a fixed seed on an OffscreenBattleView and compares
+ * render() at the start and after one round against the PNGs stored in
+ * test/gui/golden. Antialiased edges may differ a little between machines,
+ * so a few pixels are allowed to be slightly off; anything more fails and
+ * the picture that was drawn is saved next to the golden one as
+ * <name>-actual.png.
+ *
+ * Text is drawn with the machine's fonts: after a deliberate change to the
+ * screen (or on a machine with other fonts), look at the -actual images
+ * and run with --update to replace the golden ones.
+ *
+ * Usage (exits with status 1 on a failure; run from the project folder):
+ *   java -Djava.awt.headless=true -cp bin gui.OffscreenBattleViewTest [--update]
+ */
+public class OffscreenBattleViewTest {
+
+    private static final Path GOLDEN = Paths.get("test", "gui", "golden");
+
+    // A pixel is off if a color channel differs by more than this
+    private static final int CHANNEL_TOLERANCE = 48;
+    // ...and the picture fails if more than this share of pixels is off
+    private static final double OFF_PIXELS_ALLOWED = 0.001;
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        boolean update = args.length > 0 && args[0].equals("--update");
+
+        OffscreenBattleView view = new OffscreenBattleView(() -> 0);
+        BattleEngine engine = new BattleEngine(view, 7);
+        engine.chooseBuild(0);
+        engine.spawnMonsters(4);
+        engine.addHealthPotion(30);
+        engine.addBomb(20);
+        engine.start();
+        compare("start", view.render(), update);
+
+        engine.playerTurn(0);
+        engine.monsterTurn();
+        compare("after-one-round", view.render(), update);
+
+        // The same battle on a second view draws the same picture
+        OffscreenBattleView again = new OffscreenBattleView(() -> 0);
+        BattleEngine replay = new BattleEngine(again, 7);
+        replay.chooseBuild(0);
+        replay.spawnMonsters(4);
+        replay.addHealthPotion(30);
+        replay.addBomb(20);
+        replay.start();
+        replay.playerTurn(0);
+        replay.monsterTurn();
+        check("a replay draws the same pixels", offPixels(view.render(), again.render()) == 0);
+        view.dispose();
+        again.dispose();
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println(update ? "Golden images updated" : "All passed");
+    }
+
+    /**
+     * Compare a picture with test/gui/golden/<name>.png (or replace it)
+     */
+    private static void compare(String name, BufferedImage actual, boolean update) throws IOException {
+        File golden = GOLDEN.resolve(name + ".png").toFile();
+        File saved = GOLDEN.resolve(name + "-actual.png").toFile();
+        if (update) {
+            Files.createDirectories(GOLDEN);
+            ImageIO.write(actual, "png", golden);
+            saved.delete();
+            return;
+        }
+        if (!golden.exists()) {
+            check(name + ": " + golden + " exists (run with --update to make it)", false);
+            return;
+        }
+
+        BufferedImage expected = ImageIO.read(golden);
+        if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
+            check(name + ": size " + actual.getWidth() + "x" + actual.getHeight() + " matches "
+                + expected.getWidth() + "x" + expected.getHeight(), false);
+            ImageIO.write(actual, "png", saved);
+            return;
+        }
+        long off = offPixels(expected, actual);
+        long allowed = (long) (OFF_PIXELS_ALLOWED * actual.getWidth() * actual.getHeight());
+        boolean passed = off <= allowed;
+        check(name + " matches its golden image (" + off + " pixels off, " + allowed + " allowed)", passed);
+        if (passed) {
+            saved.delete();
+        } else {
+            ImageIO.write(actual, "png", saved);
+        }
+    }
+
+    /**
+     * Count the pixels where some channel differs by more than CHANNEL_TOLERANCE
+     */
+    private static long offPixels(BufferedImage a, BufferedImage b) {
+        long off = 0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    if (Math.abs(((p >> shift) & 0xFF) - ((q >> shift) & 0xFF)) > CHANNEL_TOLERANCE) {
+                        off++;
+                        break;
+                    }
+                }
+            }
+        }
+        return off;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}
@@ -0,0 +1,154 @@
+package gui;
+import game.BattleEngine;
+import game.Monster;
+import game.MonsterPool;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+
+/**
+ * UpdateDispatcherTest - The monster hit by an attack stays highlighted
+ *
+ * An attack flashes its target and then the same turn shows the monsters
+ * again. Plays one attack through an UpdateDispatcher, the way
+ * MonsterBattleGUI does, and checks the monster panel once the pass has
+ * run: the target must still be lit until the flash is cleared. A plain
+ * highlightMonster() is still cleared by the next updateMonsters().
+ *
+ * Usage (exits with status 1 on a failure):
+ *   java -Djava.awt.headless=true -cp bin gui.UpdateDispatcherTest
+ */
+public class UpdateDispatcherTest {
+
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        MonsterDisplayPanel[] panel = new MonsterDisplayPanel[1];
+        UpdateDispatcher[] updates = new UpdateDispatcher[1];
+        SwingUtilities.invokeAndWait(() -> {
+            BattleScreen screen = new BattleScreen(e -> { });
+            panel[0] = screen.monsterPanel;
+            updates[0] = new UpdateDispatcher(screen.monsterPanel, screen.playerStatusPanel,
+                screen.inventoryPanel, screen.messagePanel, screen.buttonPanel);
+        });
+        DispatcherView view = new DispatcherView(updates[0]);
+
+        BattleEngine engine = new BattleEngine(view, 7);
+        engine.chooseBuild(0);
+        engine.spawnMonsters(4);
+        engine.start();
+        int[] before = health(engine);
+
+        // One attack: flashMonster(target), then updateMonsters() in the same turn
+        engine.playerTurn(0);
+        int target = -1;
+        int[] after = health(engine);
+        for (int i = 0; i < after.length; i++) {
+            if (after[i] < before[i]) target = i;
+        }
+        check("the attack hit a monster", target >= 0);
+        check("flashMonster() was called for it", view.flashed == target);
+
+        int shown = shown(panel[0]);
+        check("target " + target + " is highlighted (got " + shown + ")", shown == target);
+
+        // More monster updates before the flash ends keep it lit
+        engine.monsterTurn();
+        shown = shown(panel[0]);
+        check("still highlighted after the monsters' turn (got " + shown + ")", shown == target);
+
+        // The flash ends, and the next update doesn't bring it back
+        updates[0].endFlash();
+        updates[0].updateMonsters(engine.getMonsters());
+        shown = shown(panel[0]);
+        check("cleared when the flash ends (got " + shown + ")", shown == -1);
+
+        // highlightMonster() then updateMonsters(): cleared, as it always was
+        updates[0].highlightMonster(1);
+        shown = shown(panel[0]);
+        check("highlightMonster(1) shows (got " + shown + ")", shown == 1);
+        updates[0].updateMonsters(engine.getMonsters());
+        shown = shown(panel[0]);
+        check("updateMonsters() clears it (got " + shown + ")", shown == -1);
+
+        // Both in the same frame
+        updates[0].highlightMonster(2);
+        updates[0].updateMonsters(engine.getMonsters());
+        shown = shown(panel[0]);
+        check("highlight before an update in the same frame is cleared (got " + shown + ")", shown == -1);
+
+        // A highlight replaces a running flash, and is cleared like any other
+        updates[0].flashMonster(0);
+        updates[0].highlightMonster(3);
+        updates[0].updateMonsters(engine.getMonsters());
+        shown = shown(panel[0]);
+        check("highlight after a flash isn't kept (got " + shown + ")", shown == -1);
+
+        if (failures > 0) {
+            System.out.println(failures + " FAILED");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * DispatcherView - Sends the monster calls through the dispatcher like
+     * MonsterBattleGUI (the flash is never cleared by itself here)
+     */
+    private static class DispatcherView extends HeadlessBattleView {
+        private final UpdateDispatcher updates;
+        int flashed = -1;
+
+        DispatcherView(UpdateDispatcher updates) {
+            super(() -> 0);
+            this.updates = updates;
+        }
+
+        @Override
+        public void updateMonsters(ArrayList<Monster> monsters) {
+            updates.updateMonsters(monsters);
+        }
+
+        @Override
+        public void updateMonsters(MonsterPool pool) {
+            updates.updateMonsters(pool.asList());
+        }
+
+        @Override
+        public void highlightMonster(int index) {
+            updates.highlightMonster(index);
+        }
+
+        @Override
+        public void flashMonster(int index, int milliseconds) {
+            flashed = index;
+            updates.flashMonster(index);
+        }
+    }
+
+    /**
+     * Let the pending pass run (it may wait for the frame timer), then read the panel
+     */
+    private static int shown(MonsterDisplayPanel panel)
+            throws InterruptedException, InvocationTargetException {
+        Thread.sleep(100);
+        int[] index = new int[1];
+        SwingUtilities.invokeAndWait(() -> index[0] = panel.getHighlightedIndex());
+        return index[0];
+    }
+
+    private static int[] health(BattleEngine engine) {
+        ArrayList<Monster> monsters = engine.getMonsters();
+        int[] health = new int[monsters.size()];
+        for (int i = 0; i < health.length; i++) {
+            health[i] = monsters.get(i).health();
+        }
+        return health;
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "ok   " : "FAIL ") + name);
+        if (!passed) failures++;
+    }
+}